@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oracle.bmc.devops.model.DeploymentArgument;
+import com.oracle.bmc.devops.model.DeploymentArgumentCollection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning the deployment arguments of a step into a {@link DeploymentArgumentCollection}: with the streaming
+ * {@link DeploymentArgumentParser}, and by reading them into a map with a new ObjectMapper as the plugin did before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DeploymentArgumentParserBenchmark {
+    @Param({"5", "100"})
+    public int argumentCount;
+
+    private String json;
+
+    @Setup
+    public void createArguments() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < argumentCount; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("\"argument").append(i).append("\": \"value-").append(i).append("-1.2.3\"");
+        }
+        json = sb.append('}').toString();
+    }
+
+    @Benchmark
+    public DeploymentArgumentCollection parse() {
+        return DeploymentArgumentParser.parse(json);
+    }
+
+    @Benchmark
+    public DeploymentArgumentCollection legacyParse() throws Exception {
+        Map<String, String> map = new ObjectMapper().readValue(json, new TypeReference<Map<String, String>>() {});
+        List<DeploymentArgument> arguments = new ArrayList<>();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            arguments.add(DeploymentArgument.builder().name(entry.getKey()).value(entry.getValue()).build());
+        }
+        return DeploymentArgumentCollection.builder().items(arguments).build();
+    }
+}
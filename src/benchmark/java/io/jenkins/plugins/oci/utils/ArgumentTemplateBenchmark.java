@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rendering deployment arguments against a build environment: with the template compiled once, compiled on every
+ * render, and with the regex based substitution the plugin used before {@link ArgumentTemplate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ArgumentTemplateBenchmark {
+    private static final Pattern LEGACY_PATTERN = Pattern.compile("(?<!\\\\)\\$\\{(\\w*?)\\}\\s?");
+
+    private String template;
+    private ArgumentTemplate compiled;
+    private Map<String, String> environment;
+
+    @Setup
+    public void createTemplate() {
+        environment = new HashMap<>();
+        for (int i = 0; i < 60; i++) {
+            environment.put("VAR_" + i, "value-" + i);
+        }
+        environment.put("BUILD_NUMBER", "1234");
+        environment.put("GIT_COMMIT", "9f3c2a7e1b4d5c6a8e9f0a1b2c3d4e5f6a7b8c9d");
+        StringBuilder sb = new StringBuilder("{\"version\":\"1.${BUILD_NUMBER}\",\"commit\":\"${GIT_COMMIT}\"");
+        for (int i = 0; i < 20; i++) {
+            sb.append(",\"arg").append(i).append("\":\"${VAR_").append(i).append("}\"");
+        }
+        template = sb.append(",\"literal\":\"\\\\${NOT_SUBSTITUTED}\"}").toString();
+        compiled = ArgumentTemplate.compile(template);
+    }
+
+    @Benchmark
+    public String renderCompiled() {
+        return compiled.render(environment);
+    }
+
+    @Benchmark
+    public String compileAndRender() {
+        return ArgumentTemplate.compile(template).render(environment);
+    }
+
+    // CommonUtil.substituteValues before ArgumentTemplate.
+    @Benchmark
+    public String legacyRegex() {
+        Matcher matcher = LEGACY_PATTERN.matcher(template);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            String key = matcher.group(1);
+            if (environment.containsKey(key)) {
+                matcher.appendReplacement(sb, environment.get(key));
+            }
+        }
+        matcher.appendTail(sb);
+        return sb.toString().replace("\\\\$", "$");
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Getting the region of an OCID with {@link Ocid} and with the split and regex based parser it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OcidBenchmark {
+    @Param({
+            "ocid1.genericrepository.oc1.iad.0.amaaaaaanlc5nbyaxmvo2h3dkqpvg3hbgxbxbqeyjkzwy3gftwfdqmbpoxqa",
+            "ocid1.tenancy.oc1..aaaaaaaaba3pv6wkcr4jqae5f15p2b2m2yt2j6rx32uzr4h25vqstifsfdsq"
+    })
+    public String ocid;
+
+    @Benchmark
+    public String parse() {
+        return Ocid.parse(ocid).getRegion();
+    }
+
+    @Benchmark
+    public String legacyParse() {
+        return LegacyOcidParser.parseRegionFromOCID(ocid);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import com.oracle.bmc.genericartifactscontent.GenericArtifactsContentClient;
+import com.oracle.bmc.genericartifactscontent.requests.PutGenericArtifactContentByPathRequest;
+import hudson.model.TaskListener;
+import hudson.remoting.VirtualChannel;
+import io.jenkins.plugins.oci.credentials.CloudCredentialsSnapshot;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Uploads a workspace file to a generic repository from the node that holds the file, so that the artifact content
+ * does not travel over the remoting channel. Progress is reported to the build log. Returns the number of bytes
+ * uploaded. The credentials are cleared once the upload is done, so each callable needs a copy of its own.
+ */
+class AgentArtifactUploadCallable extends MasterToSlaveFileCallable<Long> {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(AgentArtifactUploadCallable.class.getName());
+
+    private final CloudCredentialsSnapshot credentials;
+    private final String endpoint;
+    private final String repositoryId;
+    private final String artifactPath;
+    private final String version;
+    private final TaskListener listener;
+
+    AgentArtifactUploadCallable(CloudCredentialsSnapshot credentials, String endpoint, UploadArtifactDetails detail,
+                                TaskListener listener) {
+        this.credentials = credentials;
+        this.endpoint = endpoint;
+        this.repositoryId = detail.getRepositoryId();
+        this.artifactPath = detail.getArtifactPath();
+        this.version = detail.getVersion();
+        this.listener = listener;
+    }
+
+    @Override
+    public Long invoke(File file, VirtualChannel channel) throws IOException, InterruptedException {
+        GenericArtifactsContentClient client = UploadArtifactNotifier.newArtifactClient(credentials.toAuthProvider());
+        try (FileChannelInputStream artifactContent = new FileChannelInputStream(file)) {
+            client.setEndpoint(endpoint);
+            PutGenericArtifactContentByPathRequest request = PutGenericArtifactContentByPathRequest.builder()
+                    .artifactPath(artifactPath)
+                    .repositoryId(repositoryId)
+                    .version(version)
+                    .genericArtifactContentBody(new ProgressInputStream(artifactContent, file.getName(),
+                            artifactContent.size(), listener.getLogger()))
+                    .build();
+            client.putGenericArtifactContentByPath(request);
+            return artifactContent.size();
+        } finally {
+            try {
+                client.close();
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Error closing artifact client:", e);
+            }
+            credentials.clear();
+        }
+    }
+}
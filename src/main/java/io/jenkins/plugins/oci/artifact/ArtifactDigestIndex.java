@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controller-wide record of the SHA-256 digest last uploaded to each repository, artifact path and version with a
+ * given set of credentials, kept in JENKINS_HOME so it survives restarts. Used to skip uploads whose content is
+ * already in the repository.
+ * <p>
+ * The index keeps the {@link #MAX_ENTRIES} most recently used destinations. Upload steps record their digests in
+ * memory and {@link #save()} once when they are done, so the file is written once per step rather than per artifact.
+ */
+final class ArtifactDigestIndex {
+    static final int MAX_ENTRIES = SystemProperties.getInteger(ArtifactDigestIndex.class.getName() + ".maxEntries", 10000);
+    private static final String FILE_NAME = "oci-devops-artifact-digests.txt";
+    private static ArtifactDigestIndex instance;
+
+    private final File file;
+    private final int maxEntries;
+    // Access ordered, the least recently used destination comes first and is dropped first.
+    private final Map<String, String> digests;
+    private boolean dirty;
+
+    ArtifactDigestIndex(File file, int maxEntries) {
+        this.file = file;
+        this.maxEntries = maxEntries;
+        this.digests = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > ArtifactDigestIndex.this.maxEntries;
+            }
+        };
+    }
+
+    static synchronized ArtifactDigestIndex get() throws IOException {
+        if (instance == null) {
+            ArtifactDigestIndex index = new ArtifactDigestIndex(new File(Jenkins.get().getRootDir(), FILE_NAME), MAX_ENTRIES);
+            index.load();
+            instance = index;
+        }
+        return instance;
+    }
+
+    synchronized void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                if (separator <= 0) {
+                    continue;
+                }
+                try {
+                    digests.put(URLDecoder.decode(line.substring(separator + 1), "UTF-8"), line.substring(0, separator));
+                } catch (IllegalArgumentException e) {
+                    // A damaged line only costs one upload.
+                }
+            }
+        }
+    }
+
+    /**
+     * @param scope identifies the credentials the artifact is uploaded with, see {@link #scope}
+     */
+    synchronized boolean contains(String scope, UploadArtifactDetails detail, String sha256) {
+        return sha256.equals(digests.get(key(scope, detail)));
+    }
+
+    synchronized void put(String scope, UploadArtifactDetails detail, String sha256) {
+        if (!sha256.equals(digests.put(key(scope, detail), sha256))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the index if an upload changed it since it was last saved.
+     */
+    synchronized void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            // Least recently used first, so that loading the file restores the order.
+            for (Map.Entry<String, String> entry : digests.entrySet()) {
+                out.write(entry.getValue());
+                out.write(' ');
+                out.write(URLEncoder.encode(entry.getKey(), "UTF-8"));
+                out.write('\n');
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        dirty = false;
+    }
+
+    synchronized int size() {
+        return digests.size();
+    }
+
+    /**
+     * The same repository may be written to with credentials of different users or tenancies, a digest uploaded with
+     * one set of credentials says nothing about what the others can see.
+     */
+    static String scope(String credentialsId, String tenancyId) {
+        return credentialsId + "|" + tenancyId;
+    }
+
+    private static String key(String scope, UploadArtifactDetails detail) {
+        return scope + "|" + detail.getRepositoryId() + "/" + detail.getArtifactPath() + ":" + detail.getVersion();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.FilePath;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SHA-256 digests of the artifacts of one upload step, so that resuming and skipping unchanged artifacts read
+ * each file only once.
+ */
+final class ArtifactDigests {
+    private final Map<String, String> sha256 = new ConcurrentHashMap<>();
+
+    String sha256(FilePath file) throws IOException, InterruptedException {
+        String digest = sha256.get(file.getRemote());
+        if (digest == null) {
+            // The digest is computed on the node that holds the file.
+            digest = file.act(new Sha256DigestCallable());
+            sha256.put(file.getRemote(), digest);
+        }
+        return digest;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import com.oracle.bmc.Region;
+import io.jenkins.plugins.oci.utils.Ocid;
+import jenkins.util.SystemProperties;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the Generic Artifacts endpoint of a repository from the region code in its OCID, caching the endpoint of
+ * each region code. Repositories are almost always in one region, so the region last resolved is checked first,
+ * without copying the region code out of the OCID.
+ *
+ * <p>The {@code io.jenkins.plugins.oci.artifact.ArtifactEndpoints.endpoint} system property replaces the endpoint,
+ * with {@code {regionId}} standing for the region, to send uploads to a stand-in server for load testing.</p>
+ */
+final class ArtifactEndpoints {
+    static final String ENDPOINT_PROPERTY = ArtifactEndpoints.class.getName() + ".endpoint";
+    // TODO: remove this once endpoints are moved to oci.oraclecloud.com
+    private static final String ENDPOINT = SystemProperties.getString(ENDPOINT_PROPERTY, "https://generic.{regionId}.ocir.io");
+    // There are far fewer regions than this; the bound only keeps invalid input from growing the cache.
+    static final int MAX_CACHED_REGIONS = 128;
+
+    private static final Map<String, String> ENDPOINTS = new ConcurrentHashMap<>();
+    private static volatile CachedEndpoint last;
+
+    private ArtifactEndpoints() {
+    }
+
+    static String forRepository(String repositoryOCID) throws IllegalArgumentException {
+        Ocid ocid = Ocid.parse(repositoryOCID);
+        CachedEndpoint cached = last;
+        if (cached != null && ocid.isInRegion(cached.regionCode)) {
+            return cached.endpoint;
+        }
+        String regionCode = ocid.getRegion();
+        String endpoint = ENDPOINTS.get(regionCode);
+        if (endpoint == null) {
+            // Region.fromRegionCode throws for unknown codes, so only real regions are cached.
+            endpoint = ENDPOINT.replace("{regionId}", Region.fromRegionCode(regionCode).getRegionId());
+            if (ENDPOINTS.size() >= MAX_CACHED_REGIONS) {
+                ENDPOINTS.clear();
+            }
+            ENDPOINTS.put(regionCode, endpoint);
+        }
+        last = new CachedEndpoint(regionCode, endpoint);
+        return endpoint;
+    }
+
+    private static final class CachedEndpoint {
+        private final String regionCode;
+        private final String endpoint;
+
+        private CachedEndpoint(String regionCode, String endpoint) {
+            this.regionCode = regionCode;
+            this.endpoint = endpoint;
+        }
+    }
+}
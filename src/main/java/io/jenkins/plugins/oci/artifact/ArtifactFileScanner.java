@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.remoting.Pipe;
+import hudson.remoting.VirtualChannel;
+import jenkins.MasterToSlaveFileCallable;
+import org.apache.tools.ant.types.selectors.SelectorUtils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Walks the workspace on the node that holds it and writes the path of each file matching an Ant-style pattern to
+ * the pipe as soon as it is found, one '/' separated workspace relative path per line. Directories that cannot
+ * contain a match are not entered. Returns the number of matching files.
+ * <p>
+ * The pipe end is only usable on the node the scanner is sent to, so the stream is opened in {@link #invoke}. A
+ * workspace on the controller is scanned with {@link #scan(File, String, OutputStream)} in a thread of its own.
+ */
+class ArtifactFileScanner extends MasterToSlaveFileCallable<Integer> {
+    private static final long serialVersionUID = 1L;
+
+    interface MatchVisitor {
+        void found(String relativePath) throws IOException;
+    }
+
+    private final String pattern;
+    private final Pipe pipe;
+
+    ArtifactFileScanner(String pattern, Pipe pipe) {
+        this.pattern = pattern;
+        this.pipe = pipe;
+    }
+
+    @Override
+    public Integer invoke(File workspace, VirtualChannel channel) throws IOException, InterruptedException {
+        return scan(workspace, pattern, pipe.getOut());
+    }
+
+    /**
+     * Writes the matches to {@code out}, one per line, and closes it.
+     */
+    static int scan(File workspace, String pattern, OutputStream out) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+            return scan(workspace, pattern, relativePath -> {
+                writer.write(relativePath);
+                writer.write('\n');
+                // Flush every match so the controller can start uploading it right away.
+                writer.flush();
+            });
+        }
+    }
+
+    static int scan(File workspace, String pattern, MatchVisitor visitor) throws IOException {
+        String nativePattern = pattern.replace('\\', '/').replace('/', File.separatorChar);
+        Path root = workspace.toPath();
+        Path base = root.resolve(UploadArtifactDetails.patternBase(pattern));
+        if (!Files.isDirectory(base)) {
+            return 0;
+        }
+        int[] matches = new int[1];
+        Files.walkFileTree(base, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                String relative = root.relativize(dir).toString();
+                if (relative.isEmpty() || SelectorUtils.matchPatternStart(nativePattern, relative)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                String relative = root.relativize(file).toString();
+                if (attrs.isRegularFile() && SelectorUtils.matchPath(nativePattern, relative)) {
+                    visitor.found(relative.replace(File.separatorChar, '/'));
+                    matches[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return matches[0];
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.AbortException;
+import hudson.FilePath;
+import hudson.remoting.Pipe;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Lazily expands the configured artifact details into one entry per source file. Details with a single source file
+ * are returned as they are; for a source pattern the workspace is scanned on its node by {@link ArtifactFileScanner}
+ * and each match is returned as soon as the scanner reports it. A workspace on the controller is scanned in place by
+ * a thread of its own writing to an in-memory pipe, so there too the first upload does not wait for the whole scan
+ * and the matches are never all held in memory.
+ * <p>
+ * An iterator cannot throw checked exceptions, so when a pattern cannot be expanded, for example because it matches
+ * no file, the iteration ends early and {@link #checkFailure()} rethrows the error once the uploads are done.
+ */
+class ArtifactSources implements Iterator<UploadArtifactDetails>, Closeable {
+    private static final int LOCAL_PIPE_BUFFER_SIZE = 64 * 1024;
+
+    private final FilePath workspace;
+    private final Iterator<UploadArtifactDetails> configured;
+
+    private UploadArtifactDetails pattern;
+    private Future<Integer> scan;
+    private BufferedReader matches;
+    private UploadArtifactDetails next;
+    private Exception failure;
+
+    ArtifactSources(FilePath workspace, List<UploadArtifactDetails> configured) {
+        this.workspace = workspace;
+        this.configured = configured.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && failure == null) {
+            try {
+                next = advance();
+            } catch (IOException | InterruptedException e) {
+                failure = e;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public UploadArtifactDetails next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        UploadArtifactDetails detail = next;
+        next = null;
+        return detail;
+    }
+
+    /**
+     * Throws the error that ended the iteration early, if any.
+     */
+    void checkFailure() throws IOException, InterruptedException {
+        if (failure instanceof InterruptedException) {
+            throw (InterruptedException) failure;
+        }
+        if (failure != null) {
+            throw (IOException) failure;
+        }
+    }
+
+    private UploadArtifactDetails advance() throws IOException, InterruptedException {
+        while (true) {
+            if (matches != null) {
+                String match = matches.readLine();
+                if (match != null) {
+                    return pattern.forSourceFile(match);
+                }
+                finishScan();
+            }
+            if (!configured.hasNext()) {
+                return null;
+            }
+            UploadArtifactDetails detail = configured.next();
+            if (!detail.isSourcePattern()) {
+                return detail;
+            }
+            pattern = detail;
+            if (!workspace.isRemote()) {
+                scanLocally(new File(workspace.getRemote()), detail.getSourcePath());
+                continue;
+            }
+            Pipe pipe = Pipe.createRemoteToLocal();
+            scan = workspace.actAsync(new ArtifactFileScanner(detail.getSourcePath(), pipe));
+            matches = new BufferedReader(new InputStreamReader(pipe.getIn(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // The scanning thread blocks once the pipe buffer is full, until the uploads catch up, as with a remote pipe.
+    private void scanLocally(File directory, String sourcePattern) throws IOException {
+        PipedInputStream in = new PipedInputStream(LOCAL_PIPE_BUFFER_SIZE);
+        PipedOutputStream out = new PipedOutputStream(in);
+        FutureTask<Integer> task = new FutureTask<>(() -> ArtifactFileScanner.scan(directory, sourcePattern, out));
+        Thread thread = new Thread(task, "OCI artifact scan of " + directory + " for " + sourcePattern);
+        thread.setDaemon(true);
+        thread.start();
+        scan = task;
+        matches = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private void finishScan() throws IOException, InterruptedException {
+        matches.close();
+        matches = null;
+        int count;
+        try {
+            count = scan.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to scan the workspace for " + pattern.getSourcePath(), e.getCause());
+        } finally {
+            scan = null;
+        }
+        checkMatches(count);
+    }
+
+    private void checkMatches(int count) throws AbortException {
+        if (count == 0) {
+            throw new AbortException("No files found matching Source Path " + pattern.getSourcePath());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (scan != null) {
+            scan.cancel(true);
+            scan = null;
+        }
+        if (matches != null) {
+            matches.close();
+            matches = null;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.model.Action;
+import hudson.model.Run;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The totals of the artifact uploads of a build, shown on the build page. All upload steps of the build add to the
+ * same action.
+ */
+@Getter
+public class ArtifactUploadAction implements Action {
+    private int uploaded;
+    private long uploadedBytes;
+    private int alreadyUploaded;
+    private long alreadyUploadedBytes;
+    private int failed;
+    // Wall time of the upload steps, concurrent uploads overlap.
+    private long durationMillis;
+
+    static void record(Run<?, ?> run, List<UploadArtifactResult> results, long durationMillis) {
+        ArtifactUploadAction action;
+        synchronized (run) {
+            action = run.getAction(ArtifactUploadAction.class);
+            if (action == null) {
+                action = new ArtifactUploadAction();
+                run.addAction(action);
+            }
+        }
+        action.add(results, durationMillis);
+    }
+
+    private synchronized void add(List<UploadArtifactResult> results, long durationMillis) {
+        for (UploadArtifactResult result : results) {
+            switch (result.getStatus()) {
+                case UPLOADED:
+                    uploaded++;
+                    uploadedBytes += result.getBytes();
+                    break;
+                case ALREADY_UPLOADED:
+                    alreadyUploaded++;
+                    alreadyUploadedBytes += result.getBytes();
+                    break;
+                case FAILED:
+                    failed++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        this.durationMillis += durationMillis;
+    }
+
+    public synchronized String getUploadedSize() {
+        return ProgressInputStream.formatBytes(uploadedBytes);
+    }
+
+    public synchronized String getAlreadyUploadedSize() {
+        return ProgressInputStream.formatBytes(alreadyUploadedBytes);
+    }
+
+    public synchronized String getThroughput() {
+        return durationMillis > 0 ? ProgressInputStream.formatBytes(uploadedBytes * 1000 / durationMillis) + "/s" : "-";
+    }
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "OCI Artifact Uploads";
+    }
+
+    @Override
+    public String getUrlName() {
+        return null;
+    }
+}
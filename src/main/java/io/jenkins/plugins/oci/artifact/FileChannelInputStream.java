@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Request body backed by a {@link FileChannel}. Content is read with positional reads in parts of at most
+ * {@link #PART_SIZE} bytes, and {@link #mark(int)}/{@link #reset()} only move the read position, so the SDK can
+ * rewind the body to retry a failed PUT without holding the file in memory the way a {@code BufferedInputStream}
+ * with a large mark limit does.
+ */
+class FileChannelInputStream extends InputStream {
+    static final int PART_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private long position;
+    private long mark;
+
+    FileChannelInputStream(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    long size() {
+        return size;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (position >= size) {
+            return -1;
+        }
+        int n = channel.read(ByteBuffer.wrap(b, off, Math.min(len, PART_SIZE)), position);
+        if (n > 0) {
+            position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, size - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, size - position);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        mark = position;
+    }
+
+    @Override
+    public synchronized void reset() {
+        position = mark;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.model.TaskListener;
+import org.apache.commons.lang.exception.ExceptionUtils;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs artifact uploads with a bounded level of concurrency and collects one result per artifact.
+ * In fail-fast mode the first failure cancels the uploads still running and no further uploads are started.
+ * Concurrent uploads run on the given executor, typically a bounded slice of the shared {@code AsyncExecutors}.
+ * An interrupted upload is not a failed one: interruption aborts the whole run, whatever the failure mode.
+ */
+class ParallelArtifactUploader {
+    interface UploadFunction {
+        UploadArtifactResult upload(UploadArtifactDetails detail) throws Exception;
+    }
+
+    private final Executor executor;
+    private final int concurrency;
+    private final boolean failFast;
+    private final TaskListener listener;
+
+    ParallelArtifactUploader(Executor executor, int concurrency, boolean failFast, TaskListener listener) {
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+        this.failFast = failFast;
+        this.listener = listener;
+    }
+
+    /**
+     * Uploads the artifacts as the iterator produces them, so uploads can start before the iterator is exhausted.
+     * Results are returned in iteration order. After a failure in fail-fast mode the iterator is not advanced any
+     * further, and uploads that were still running are reported as skipped.
+     */
+    List<UploadArtifactResult> upload(Iterator<UploadArtifactDetails> details, UploadFunction function)
+            throws InterruptedException {
+        if (concurrency == 1) {
+            return uploadSequentially(details, function);
+        }
+        return uploadConcurrently(details, function);
+    }
+
+    private List<UploadArtifactResult> uploadSequentially(Iterator<UploadArtifactDetails> details, UploadFunction function)
+            throws InterruptedException {
+        List<UploadArtifactResult> results = new ArrayList<>();
+        while (details.hasNext()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            UploadArtifactResult result = uploadOne(details.next(), function);
+            results.add(result);
+            if (failFast && !result.isSuccess()) {
+                listener.getLogger().println("Upload failed, not uploading the remaining artifacts");
+                break;
+            }
+        }
+        return results;
+    }
+
+    private List<UploadArtifactResult> uploadConcurrently(Iterator<UploadArtifactDetails> details, UploadFunction function)
+            throws InterruptedException {
+        CompletionService<UploadArtifactResult> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<UploadArtifactResult>, Integer> indexes = new IdentityHashMap<>();
+        List<UploadArtifactDetails> submitted = new ArrayList<>();
+        List<UploadArtifactResult> results = new ArrayList<>();
+        boolean failed = false;
+        try {
+            // Keep at most `concurrency` uploads in flight so that lazily produced details are not read ahead.
+            while (!(failed && failFast) && (indexes.size() == concurrency || details.hasNext())) {
+                if (indexes.size() == concurrency) {
+                    failed |= !collect(completionService.take(), indexes, submitted, results);
+                    continue;
+                }
+                UploadArtifactDetails detail = details.next();
+                submitted.add(detail);
+                results.add(null);
+                indexes.put(completionService.submit(() -> uploadOne(detail, function)), submitted.size() - 1);
+            }
+            while (!(failed && failFast) && !indexes.isEmpty()) {
+                failed |= !collect(completionService.take(), indexes, submitted, results);
+            }
+            if (failed && failFast) {
+                listener.getLogger().println("Upload failed, cancelling remaining artifact uploads");
+            }
+        } finally {
+            // Interrupts the uploads still running after a failure in fail-fast mode, or when the build is aborted.
+            indexes.keySet().forEach(future -> future.cancel(true));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, UploadArtifactResult.skipped(submitted.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private boolean collect(Future<UploadArtifactResult> future, Map<Future<UploadArtifactResult>, Integer> indexes,
+                            List<UploadArtifactDetails> submitted, List<UploadArtifactResult> results)
+            throws InterruptedException {
+        int index = indexes.remove(future);
+        UploadArtifactResult result = getResult(future, submitted.get(index));
+        results.set(index, result);
+        return result.isSuccess();
+    }
+
+    private UploadArtifactResult uploadOne(UploadArtifactDetails detail, UploadFunction function)
+            throws InterruptedException {
+        long start = System.currentTimeMillis();
+        try {
+            return function.upload(detail);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // The SDK and remoting report interruption as InterruptedIOException or wrapped in their own exceptions.
+            if (e instanceof InterruptedIOException || Thread.interrupted()) {
+                InterruptedException interrupted = new InterruptedException("Upload of " + detail.getSourcePath() + " was interrupted");
+                interrupted.initCause(e);
+                throw interrupted;
+            }
+            listener.getLogger().println(String.format("Failed to upload %s: %s", detail.getSourcePath(), e.getMessage()));
+            listener.getLogger().println(ExceptionUtils.getStackTrace(e));
+            return UploadArtifactResult.failed(detail, System.currentTimeMillis() - start, e);
+        }
+    }
+
+    private UploadArtifactResult getResult(Future<UploadArtifactResult> future, UploadArtifactDetails detail)
+            throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                // Only cancel(true) or the executor shutting down interrupts an upload task.
+                return UploadArtifactResult.skipped(detail);
+            }
+            // uploadOne only throws on interruption, but keep the result list complete if a task dies unexpectedly.
+            return UploadArtifactResult.failed(detail, 0, e.getCause());
+        }
+    }
+}
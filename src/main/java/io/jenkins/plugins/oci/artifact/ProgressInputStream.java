@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the bytes the SDK reads from an artifact and prints the progress of the upload, with its throughput and
+ * the time left, at most every {@link #REPORT_INTERVAL_SECONDS} seconds. Only the thread sending the request reads
+ * the stream, so a read costs an addition and a clock read; text is only formatted when a report is due. When the
+ * SDK rewinds the body to retry, the count goes back with it.
+ */
+class ProgressInputStream extends FilterInputStream {
+    static final long REPORT_INTERVAL_SECONDS = 10;
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(REPORT_INTERVAL_SECONDS);
+
+    private final String name;
+    private final long size;
+    private final PrintStream log;
+    private final long startNanos;
+    private long nextReportNanos;
+    private long bytes;
+    private long markedBytes;
+
+    ProgressInputStream(InputStream in, String name, long size, PrintStream log) {
+        super(in);
+        this.name = name;
+        this.size = size;
+        this.log = log;
+        this.startNanos = System.nanoTime();
+        this.nextReportNanos = startNanos + REPORT_INTERVAL_NANOS;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            advance(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n > 0) {
+            advance(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(n);
+        if (skipped > 0) {
+            advance(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+        in.mark(readLimit);
+        markedBytes = bytes;
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        in.reset();
+        bytes = markedBytes;
+    }
+
+    private void advance(long n) {
+        bytes += n;
+        long now = System.nanoTime();
+        if (now - nextReportNanos >= 0) {
+            nextReportNanos = now + REPORT_INTERVAL_NANOS;
+            report(now - startNanos);
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double bytesPerSecond = bytes * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        StringBuilder sb = new StringBuilder("Uploading ").append(name).append(": ")
+                .append(formatBytes(bytes)).append(" of ").append(formatBytes(size));
+        if (size > 0) {
+            sb.append(" (").append(bytes * 100 / size).append("%)");
+        }
+        sb.append(", ").append(formatBytes((long) bytesPerSecond)).append("/s");
+        if (bytesPerSecond > 0 && size > bytes) {
+            sb.append(", about ").append((long) Math.ceil((size - bytes) / bytesPerSecond)).append(" s left");
+        }
+        log.println(sb);
+    }
+
+    static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        int unit = (63 - Long.numberOfLeadingZeros(bytes)) / 10;
+        return String.format(Locale.ENGLISH, "%.1f %siB", bytes / (double) (1L << (unit * 10)), "KMGTPE".charAt(unit - 1));
+    }
+}
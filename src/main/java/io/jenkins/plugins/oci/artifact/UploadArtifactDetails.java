@@ -14,6 +14,9 @@ import org.kohsuke.stapler.DataBoundConstructor;
 
 @Data
 public class UploadArtifactDetails extends AbstractDescribableImpl<UploadArtifactDetails> {
+    static final String PATH_PLACEHOLDER = "{path}";
+    static final String FILE_NAME_PLACEHOLDER = "{fileName}";
+
     private String sourcePath;
     private String repositoryId;
     private RepositoryType repositoryType;
@@ -31,6 +34,47 @@ public class UploadArtifactDetails extends AbstractDescribableImpl<UploadArtifac
         this.sourcePath = sourcePath;
     }
 
+    /**
+     * Whether {@link #sourcePath} is an Ant-style pattern such as {@code build/libs/*.jar} rather than a
+     * single file. For a pattern, {@link #artifactPath} is a template in which {@value #PATH_PLACEHOLDER} and
+     * {@value #FILE_NAME_PLACEHOLDER} are replaced for each matching file.
+     */
+    boolean isSourcePattern() {
+        return sourcePath != null && (sourcePath.indexOf('*') >= 0 || sourcePath.indexOf('?') >= 0);
+    }
+
+    boolean isArtifactPathTemplate() {
+        return artifactPath != null
+                && (artifactPath.contains(PATH_PLACEHOLDER) || artifactPath.contains(FILE_NAME_PLACEHOLDER));
+    }
+
+    /**
+     * The leading directories of a source pattern that contain no wildcard, with a trailing '/' unless empty.
+     * Only this directory needs to be walked to find the matching files.
+     */
+    static String patternBase(String pattern) {
+        String normalized = pattern.replace('\\', '/');
+        int wildcard = normalized.length();
+        for (char c : new char[] {'*', '?'}) {
+            int index = normalized.indexOf(c);
+            if (index >= 0 && index < wildcard) {
+                wildcard = index;
+            }
+        }
+        return normalized.substring(0, normalized.lastIndexOf('/', wildcard) + 1);
+    }
+
+    /**
+     * Details for one file matching this pattern, given its path relative to the workspace using '/' separators.
+     */
+    UploadArtifactDetails forSourceFile(String relativePath) {
+        String base = patternBase(sourcePath);
+        String path = relativePath.startsWith(base) ? relativePath.substring(base.length()) : relativePath;
+        String fileName = relativePath.substring(relativePath.lastIndexOf('/') + 1);
+        return new UploadArtifactDetails(relativePath, repositoryType, repositoryId, version,
+                artifactPath.replace(PATH_PLACEHOLDER, path).replace(FILE_NAME_PLACEHOLDER, fileName));
+    }
+
     @Extension
     public static class DescriptorImpl extends Descriptor<UploadArtifactDetails> {
         private static final String GENERIC = "Generic";
@@ -7,12 +7,12 @@ package io.jenkins.plugins.oci.artifact;
 
 import com.google.common.base.Strings;
 import com.oracle.bmc.ClientConfiguration;
-import com.oracle.bmc.Region;
 import com.oracle.bmc.genericartifactscontent.requests.PutGenericArtifactContentByPathRequest;
 import com.oracle.bmc.genericartifactscontent.GenericArtifactsContentClient;
-import com.oracle.bmc.auth.SimpleAuthenticationDetailsProvider;
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
 import com.oracle.bmc.retrier.RetryConfiguration;
 import com.oracle.bmc.waiter.MaxAttemptsTerminationStrategy;
+import hudson.AbortException;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.Launcher;
@@ -25,7 +25,12 @@ import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Notifier;
 import hudson.tasks.Publisher;
 import hudson.util.ListBoxModel;
+import io.jenkins.plugins.oci.client.AsyncExecutors;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.credentials.CloudCredentialsSnapshot;
 import io.jenkins.plugins.oci.messages.Messages.DisplayNames;
+import io.jenkins.plugins.oci.metrics.PluginMetrics;
 import jenkins.tasks.SimpleBuildStep;
 import lombok.Data;
 import org.apache.commons.collections.CollectionUtils;
@@ -33,26 +38,40 @@ import org.apache.commons.lang.exception.ExceptionUtils;
 import org.jenkinsci.Symbol;
 import org.kohsuke.stapler.AncestorInPath;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.QueryParameter;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLDecoder;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import io.jenkins.plugins.oci.utils.CommonUtil;
 
 @Data
 public class UploadArtifactNotifier extends Notifier implements SimpleBuildStep {
     private static final String UTF_8_ENCODING = "UTF-8";
-    private static final int MAX_ATTEMPTS = 3;
-    // TODO: remove this once endpoints are moved to oci.oraclecloud.com
-    private static  final String ENDPOINT = "https://generic.{regionId}.ocir.io";
+    static final int MAX_ATTEMPTS = 3;
+    private static final int DEFAULT_MAX_CONCURRENT_UPLOADS = 1;
+    private static final int MAX_CONCURRENT_UPLOADS_LIMIT = 32;
 
     private String credentialsId;
     private List<UploadArtifactDetails> uploadArtifactDetailsList;
+    // 0 (the value for configurations saved before this option existed) means DEFAULT_MAX_CONCURRENT_UPLOADS.
+    private int maxConcurrentUploads;
+    // Fail fast by default: the first failed upload cancels the remaining ones.
+    private boolean collectAllErrors;
+    // Run the upload on the node that holds the workspace instead of streaming the content through the controller.
+    private boolean uploadFromAgent;
+    // Skip artifacts already uploaded by a previous, partially failed run in the same workspace.
+    private boolean resumeUploads;
+    // Skip artifacts whose content matches the digest last uploaded from this controller to the same destination.
+    private boolean skipUnchangedArtifacts;
 
     @DataBoundConstructor
     public UploadArtifactNotifier(String credentialsId, List<UploadArtifactDetails> uploadArtifactDetailsList) {
@@ -60,6 +79,31 @@ public class UploadArtifactNotifier extends Notifier implements SimpleBuildStep
         this.credentialsId = credentialsId;
     }
 
+    @DataBoundSetter
+    public void setMaxConcurrentUploads(int maxConcurrentUploads) {
+        this.maxConcurrentUploads = maxConcurrentUploads;
+    }
+
+    @DataBoundSetter
+    public void setCollectAllErrors(boolean collectAllErrors) {
+        this.collectAllErrors = collectAllErrors;
+    }
+
+    @DataBoundSetter
+    public void setUploadFromAgent(boolean uploadFromAgent) {
+        this.uploadFromAgent = uploadFromAgent;
+    }
+
+    @DataBoundSetter
+    public void setResumeUploads(boolean resumeUploads) {
+        this.resumeUploads = resumeUploads;
+    }
+
+    @DataBoundSetter
+    public void setSkipUnchangedArtifacts(boolean skipUnchangedArtifacts) {
+        this.skipUnchangedArtifacts = skipUnchangedArtifacts;
+    }
+
     @Override
     public void perform(Run<?, ?> run, FilePath workspace, Launcher launcher, TaskListener listener) throws InterruptedException, IOException {
         try {
@@ -68,14 +112,51 @@ public class UploadArtifactNotifier extends Notifier implements SimpleBuildStep
             listener.getLogger().println("Validating Parameters");
             validateParams();
 
-            SimpleAuthenticationDetailsProvider authProvider = CommonUtil.getAuthProvider(credentialsId);
-            GenericArtifactsContentClient client = createArtifactClient(authProvider);
-
-            listener.getLogger().println("Uploading Artifacts To Generic Repo");
-            uploadArtifacts(client, uploadArtifactDetailsList, workspace, listener);
+            List<UploadArtifactResult> results;
+            long start = System.currentTimeMillis();
+            if (uploadFromAgent) {
+                CloudCredentialsSnapshot credentials = CloudCredentialsSnapshot.of(CommonUtil.getCredentials(credentialsId));
+                listener.getLogger().println("Uploading Artifacts To Generic Repo from the node holding the workspace");
+                try {
+                    results = uploadArtifactsFromAgent(credentials, uploadArtifactDetailsList, workspace, listener);
+                } finally {
+                    credentials.clear();
+                }
+            } else {
+                AuthenticationDetailsProvider authProvider = CommonUtil.getAuthProvider(credentialsId);
+                listener.getLogger().println("Uploading Artifacts To Generic Repo");
+                results = uploadArtifacts(authProvider, uploadArtifactDetailsList, workspace, listener);
+            }
+            ArtifactUploadAction.record(run, results, System.currentTimeMillis() - start);
 
+            long failures = results.stream().filter(result -> !result.isSuccess()).count();
+            listener.getLogger().println("Artifact Upload Summary:");
+            for (UploadArtifactResult result : results) {
+                listener.getLogger().println("  " + result);
+            }
+            long skipped = results.stream().filter(result -> result.getStatus() == UploadArtifactResult.Status.ALREADY_UPLOADED).count();
+            if (skipped > 0) {
+                long bytesSaved = results.stream()
+                        .filter(result -> result.getStatus() == UploadArtifactResult.Status.ALREADY_UPLOADED)
+                        .mapToLong(UploadArtifactResult::getBytes)
+                        .sum();
+                listener.getLogger().println(String.format("%d artifacts were already uploaded, %d bytes saved", skipped, bytesSaved));
+            }
+            if (failures > 0) {
+                listener.getLogger().println(String.format("%d of %d artifacts were not uploaded", failures, results.size()));
+                run.setResult(Result.FAILURE);
+                return;
+            }
             listener.getLogger().println("Artifacts Upload complete");
             run.setResult(Result.SUCCESS);
+        } catch (AbortException e) {
+            // A configuration problem such as a pattern matching no file, the message says it all.
+            listener.getLogger().println(e.getMessage());
+            run.setResult(Result.FAILURE);
+        } catch (InterruptedException e) {
+            // The build was aborted, let Jenkins record it as such instead of as a failed upload.
+            listener.getLogger().println("Artifact upload interrupted");
+            throw e;
         } catch (Exception e) {
             listener.getLogger().println(e.getMessage());
             listener.getLogger().println(ExceptionUtils.getStackTrace(e));
@@ -83,7 +164,11 @@ public class UploadArtifactNotifier extends Notifier implements SimpleBuildStep
         }
     }
 
-    GenericArtifactsContentClient createArtifactClient(SimpleAuthenticationDetailsProvider provider) {
+    GenericArtifactsContentClient createArtifactClient(AuthenticationDetailsProvider provider) {
+        return newArtifactClient(provider);
+    }
+
+    public static GenericArtifactsContentClient newArtifactClient(AuthenticationDetailsProvider provider) {
         // Set the default retry strategy for Put Generic Artifact operation to MAX_ATTEMPTS
         GenericArtifactsContentClient client = new GenericArtifactsContentClient(provider, ClientConfiguration.builder()
                 .retryConfiguration(
@@ -94,34 +179,166 @@ public class UploadArtifactNotifier extends Notifier implements SimpleBuildStep
         return client;
     }
 
-    void uploadArtifacts(GenericArtifactsContentClient client, List<UploadArtifactDetails> details,
-                         FilePath workspace, TaskListener listener ) throws Exception {
-        for (UploadArtifactDetails detail : details) {
+    List<UploadArtifactResult> uploadArtifacts(AuthenticationDetailsProvider provider, List<UploadArtifactDetails> details,
+                                               FilePath workspace, TaskListener listener) throws Exception {
+        // A user can upload artifacts to different regions. First fetch the region ID from the repository OCID.
+        // Clients are shared with concurrent builds, so instead of switching the endpoint of a client lease one per endpoint.
+        Map<String, CloudClientPool.Lease<GenericArtifactsContentClient>> clients = new HashMap<>();
+        try {
+            for (UploadArtifactDetails detail : details) {
+                String endpoint = getEndpointFromOCID(detail.getRepositoryId());
+                if (!clients.containsKey(endpoint)) {
+                    clients.put(endpoint, CloudClientPools.ARTIFACT_CLIENTS.acquire(clientKey(provider, endpoint), () -> {
+                        GenericArtifactsContentClient client = createArtifactClient(provider);
+                        client.setEndpoint(endpoint);
+                        return client;
+                    }));
+                }
+            }
+            return runUploads(details, workspace, listener, detail ->
+                    uploadArtifact(clients.get(getEndpointFromOCID(detail.getRepositoryId())).get(), detail, workspace, listener));
+        } finally {
+            clients.values().forEach(CloudClientPool.Lease::close);
+        }
+    }
+
+    String clientKey(AuthenticationDetailsProvider provider, String endpoint) {
+        return CloudClientPools.clientKey(credentialsId, provider, endpoint);
+    }
+
+    UploadArtifactResult uploadArtifact(GenericArtifactsContentClient client, UploadArtifactDetails detail,
+                                        FilePath workspace, TaskListener listener) throws Exception {
+        long start = System.currentTimeMillis();
+        FilePath artifactFile = new FilePath(workspace, detail.getSourcePath());
+        long size = artifactFile.length();
+        try (InputStream artifactContent = new ProgressInputStream(openArtifactContent(artifactFile),
+                artifactFile.getName(), size, listener.getLogger())) {
+            listener.getLogger().println(String.format("Uploading Artifact located at %s", artifactFile.absolutize()));
+            listener.getLogger().println(String.format("Artifact Name: %s", artifactFile.getName()));
+            listener.getLogger().println(String.format("Artifact Size: %s", size));
+
+            PutGenericArtifactContentByPathRequest request = PutGenericArtifactContentByPathRequest.builder()
+                    .artifactPath(detail.getArtifactPath())
+                    .repositoryId(detail.getRepositoryId())
+                    .version(detail.getVersion())
+                    .genericArtifactContentBody(artifactContent)
+                    .build();
+            client.putGenericArtifactContentByPath(request);
+        }
+        return UploadArtifactResult.uploaded(detail, size, System.currentTimeMillis() - start);
+    }
+
+    // A file on the controller can be read back from disk when the SDK retries the request; a file on an agent has to
+    // be streamed over the remoting channel.
+    static InputStream openArtifactContent(FilePath artifactFile) throws IOException, InterruptedException {
+        if (!artifactFile.isRemote()) {
+            return new FileChannelInputStream(new File(artifactFile.getRemote()));
+        }
+        return new BufferedInputStream(artifactFile.read());
+    }
+
+    List<UploadArtifactResult> uploadArtifactsFromAgent(CloudCredentialsSnapshot credentials, List<UploadArtifactDetails> details,
+                                                        FilePath workspace, TaskListener listener) throws Exception {
+        return runUploads(details, workspace, listener, detail -> {
+            long start = System.currentTimeMillis();
             FilePath artifactFile = new FilePath(workspace, detail.getSourcePath());
-            try (BufferedInputStream artifactContent = new BufferedInputStream(artifactFile.read())) {
-                listener.getLogger().println(String.format("Uploading Artifact located at %s", artifactFile.absolutize()));
-                listener.getLogger().println(String.format("Artifact Name: %s", artifactFile.getName()));
-                listener.getLogger().println(String.format("Artifact Size: %s", artifactFile.length()));
-
-                PutGenericArtifactContentByPathRequest request = PutGenericArtifactContentByPathRequest.builder()
-                        .artifactPath(detail.getArtifactPath())
-                        .repositoryId(detail.getRepositoryId())
-                        .version(detail.getVersion())
-                        .genericArtifactContentBody(artifactContent)
-                        .build();
-
-                // A user can upload artifacts to different regions. First fetch the region ID from the repository OCID.
-                // Set end point for the client before each artifact upload.
-                client.setEndpoint(getEndpointFromOCID(detail.getRepositoryId()));
-                client.putGenericArtifactContentByPath(request);
+            listener.getLogger().println(String.format("Uploading Artifact located at %s", artifactFile.getRemote()));
+            CloudCredentialsSnapshot uploadCredentials = credentials.copy();
+            long size;
+            try {
+                size = artifactFile.act(new AgentArtifactUploadCallable(uploadCredentials,
+                        getEndpointFromOCID(detail.getRepositoryId()), detail, listener));
+            } finally {
+                uploadCredentials.clear();
+            }
+            return UploadArtifactResult.uploaded(detail, size, System.currentTimeMillis() - start);
+        });
+    }
+
+    List<UploadArtifactResult> runUploads(List<UploadArtifactDetails> details, FilePath workspace, TaskListener listener,
+                                          ParallelArtifactUploader.UploadFunction upload) throws Exception {
+        ArtifactDigests digests = new ArtifactDigests();
+        ArtifactDigestIndex index = null;
+        if (skipUnchangedArtifacts) {
+            index = ArtifactDigestIndex.get();
+            String scope = ArtifactDigestIndex.scope(credentialsId, CommonUtil.getCredentials(credentialsId).getTenantId());
+            upload = skipUnchanged(index, scope, digests, workspace, listener, upload);
+        }
+        // The uploads mostly wait on the network, run them on the executor shared by the OCI operations.
+        try (ArtifactSources sources = new ArtifactSources(workspace, details)) {
+            ParallelArtifactUploader uploader = new ParallelArtifactUploader(
+                    AsyncExecutors.bounded(getEffectiveMaxConcurrentUploads()),
+                    getEffectiveMaxConcurrentUploads(), !collectAllErrors, listener);
+            if (!resumeUploads) {
+                List<UploadArtifactResult> results = recordMetrics(uploader.upload(sources, upload));
+                sources.checkFailure();
+                return results;
+            }
+            UploadCheckpoint checkpoint = UploadCheckpoint.load(workspace);
+            List<UploadArtifactResult> results = recordMetrics(uploader.upload(sources,
+                    resumeFrom(checkpoint, digests, workspace, listener, upload)));
+            sources.checkFailure();
+            if (results.stream().allMatch(UploadArtifactResult::isSuccess)) {
+                checkpoint.clear();
+            }
+            return results;
+        } finally {
+            // Digests of the artifacts uploaded before a failure are still worth keeping.
+            if (index != null) {
+                index.save();
             }
         }
     }
 
+    // Recorded here rather than in the upload itself, which may run on an agent.
+    private static List<UploadArtifactResult> recordMetrics(List<UploadArtifactResult> results) {
+        for (UploadArtifactResult result : results) {
+            if (result.getStatus() == UploadArtifactResult.Status.UPLOADED) {
+                PluginMetrics.uploaded(result.getBytes(), result.getDurationMillis());
+            }
+        }
+        return results;
+    }
+
+    ParallelArtifactUploader.UploadFunction resumeFrom(UploadCheckpoint checkpoint, ArtifactDigests digests, FilePath workspace,
+                                                       TaskListener listener, ParallelArtifactUploader.UploadFunction upload) {
+        return detail -> {
+            FilePath artifactFile = new FilePath(workspace, detail.getSourcePath());
+            long length = artifactFile.length();
+            String sourceState = UploadCheckpoint.sourceState(length, digests.sha256(artifactFile));
+            if (checkpoint.isUploaded(detail, sourceState)) {
+                listener.getLogger().println(String.format("Artifact %s was uploaded by a previous attempt, skipping", detail.getSourcePath()));
+                return UploadArtifactResult.alreadyUploaded(detail, length);
+            }
+            UploadArtifactResult result = upload.upload(detail);
+            checkpoint.markUploaded(detail, sourceState);
+            return result;
+        };
+    }
+
+    ParallelArtifactUploader.UploadFunction skipUnchanged(ArtifactDigestIndex index, String scope, ArtifactDigests digests,
+                                                          FilePath workspace, TaskListener listener,
+                                                          ParallelArtifactUploader.UploadFunction upload) {
+        return detail -> {
+            FilePath artifactFile = new FilePath(workspace, detail.getSourcePath());
+            String sha256 = digests.sha256(artifactFile);
+            if (index.contains(scope, detail, sha256)) {
+                listener.getLogger().println(String.format("Artifact %s is unchanged since it was last uploaded (sha256 %s), skipping",
+                        detail.getSourcePath(), sha256));
+                return UploadArtifactResult.alreadyUploaded(detail, artifactFile.length());
+            }
+            UploadArtifactResult result = upload.upload(detail);
+            index.put(scope, detail, sha256);
+            return result;
+        };
+    }
+
+    int getEffectiveMaxConcurrentUploads() {
+        return maxConcurrentUploads > 0 ? maxConcurrentUploads : DEFAULT_MAX_CONCURRENT_UPLOADS;
+    }
+
     String getEndpointFromOCID(String repositoryOCID) throws Exception {
-        return ENDPOINT.replace
-                ("{regionId}", Region.fromRegionCode(CommonUtil.parseRegionFromOCID(repositoryOCID))
-                        .getRegionId());
+        return ArtifactEndpoints.forRepository(repositoryOCID);
     }
 
     void validateParams() {
@@ -131,6 +348,10 @@ public class UploadArtifactNotifier extends Notifier implements SimpleBuildStep
         if(CollectionUtils.isEmpty(uploadArtifactDetailsList)) {
             throw new IllegalArgumentException("UploadArtifactDetailsList must be specified.");
         }
+        if (maxConcurrentUploads < 0 || maxConcurrentUploads > MAX_CONCURRENT_UPLOADS_LIMIT) {
+            throw new IllegalArgumentException("Max concurrent uploads must be between 1 and " + MAX_CONCURRENT_UPLOADS_LIMIT
+                    + ", or 0 for the default of " + DEFAULT_MAX_CONCURRENT_UPLOADS);
+        }
         for (UploadArtifactDetails details: uploadArtifactDetailsList) {
             if (Strings.isNullOrEmpty(details.getArtifactPath())) {
                 throw new IllegalArgumentException("Artifact Path must be specified.");
@@ -144,6 +365,10 @@ public class UploadArtifactNotifier extends Notifier implements SimpleBuildStep
             if (Strings.isNullOrEmpty(details.getVersion())) {
                 throw new IllegalArgumentException("Version must be specified.");
             }
+            if (details.isSourcePattern() && !details.isArtifactPathTemplate()) {
+                throw new IllegalArgumentException(String.format("Artifact Path must contain %s or %s when Source Path is a pattern.",
+                        UploadArtifactDetails.PATH_PLACEHOLDER, UploadArtifactDetails.FILE_NAME_PLACEHOLDER));
+            }
         }
     }
 
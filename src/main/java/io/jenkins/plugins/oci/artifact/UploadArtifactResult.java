@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * Outcome of uploading a single artifact.
+ */
+@Getter
+public class UploadArtifactResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        UPLOADED,
+        // Already present in the repository, for example uploaded by an earlier attempt of the build.
+        ALREADY_UPLOADED,
+        FAILED,
+        // Cancelled because another upload failed in fail-fast mode.
+        SKIPPED
+    }
+
+    private final String sourcePath;
+    private final String repositoryId;
+    private final String artifactPath;
+    private final String version;
+    private final Status status;
+    private final long bytes;
+    private final long durationMillis;
+    private final String errorMessage;
+
+    private UploadArtifactResult(UploadArtifactDetails detail, Status status, long bytes, long durationMillis,
+                                 String errorMessage) {
+        this.sourcePath = detail.getSourcePath();
+        this.repositoryId = detail.getRepositoryId();
+        this.artifactPath = detail.getArtifactPath();
+        this.version = detail.getVersion();
+        this.status = status;
+        this.bytes = bytes;
+        this.durationMillis = durationMillis;
+        this.errorMessage = errorMessage;
+    }
+
+    public static UploadArtifactResult uploaded(UploadArtifactDetails detail, long bytes, long durationMillis) {
+        return new UploadArtifactResult(detail, Status.UPLOADED, bytes, durationMillis, null);
+    }
+
+    public static UploadArtifactResult alreadyUploaded(UploadArtifactDetails detail, long bytes) {
+        return new UploadArtifactResult(detail, Status.ALREADY_UPLOADED, bytes, 0, null);
+    }
+
+    public static UploadArtifactResult failed(UploadArtifactDetails detail, long durationMillis, Throwable cause) {
+        return new UploadArtifactResult(detail, Status.FAILED, 0, durationMillis, String.valueOf(cause.getMessage()));
+    }
+
+    public static UploadArtifactResult skipped(UploadArtifactDetails detail) {
+        return new UploadArtifactResult(detail, Status.SKIPPED, 0, 0, null);
+    }
+
+    public boolean isSuccess() {
+        return status == Status.UPLOADED || status == Status.ALREADY_UPLOADED;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder()
+                .append(status).append(' ')
+                .append(sourcePath).append(" -> ")
+                .append(artifactPath).append(':').append(version);
+        if (status == Status.UPLOADED) {
+            sb.append(" (").append(bytes).append(" bytes in ").append(durationMillis).append(" ms)");
+        } else if (status == Status.FAILED) {
+            sb.append(" (").append(errorMessage).append(')');
+        }
+        return sb.toString();
+    }
+}
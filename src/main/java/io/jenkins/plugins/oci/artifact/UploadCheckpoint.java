@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.WorkspaceList;
+import jenkins.MasterToSlaveFileCallable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records the artifacts uploaded by a step in the workspace temporary directory, so that rerunning a build whose
+ * upload step failed part way only uploads the artifacts that were not uploaded yet. An artifact is considered
+ * uploaded when its destination and the size and SHA-256 digest of its source file match the recorded entry, so an
+ * artifact rebuilt with the same content by the retried build is still skipped.
+ * <p>
+ * Each uploaded artifact appends one line to the file on the node that holds the workspace, a later line for the same
+ * destination replaces an earlier one. A line cut short by a crash is ignored when the file is loaded again.
+ */
+class UploadCheckpoint {
+    private static final String FILE_NAME = "oci-upload-checkpoint.txt";
+
+    private final FilePath file;
+    private final Map<String, String> uploaded = new HashMap<>();
+
+    private UploadCheckpoint(FilePath file) {
+        this.file = file;
+    }
+
+    static UploadCheckpoint load(FilePath workspace) throws IOException, InterruptedException {
+        FilePath tempDir = WorkspaceList.tempDir(workspace);
+        if (tempDir == null) {
+            throw new IOException("Unable to locate the temporary directory of workspace " + workspace.getRemote());
+        }
+        tempDir.mkdirs();
+        UploadCheckpoint checkpoint = new UploadCheckpoint(tempDir.child(FILE_NAME));
+        if (checkpoint.file.exists()) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(checkpoint.file.read(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    checkpoint.parse(line);
+                }
+            }
+        }
+        return checkpoint;
+    }
+
+    static String sourceState(long length, String sha256) {
+        return length + ":" + sha256;
+    }
+
+    synchronized boolean isUploaded(UploadArtifactDetails detail, String sourceState) {
+        return sourceState.equals(uploaded.get(key(detail)));
+    }
+
+    synchronized void markUploaded(UploadArtifactDetails detail, String sourceState) throws IOException, InterruptedException {
+        String key = key(detail);
+        if (sourceState.equals(uploaded.put(key, sourceState))) {
+            return;
+        }
+        file.act(new AppendLine(sourceState + " " + encode(key) + "\n"));
+    }
+
+    // Once every artifact of the step is uploaded there is nothing left to resume.
+    synchronized void clear() throws IOException, InterruptedException {
+        uploaded.clear();
+        file.delete();
+    }
+
+    private void parse(String line) throws UnsupportedEncodingException {
+        int separator = line.indexOf(' ');
+        if (separator <= 0 || separator == line.length() - 1) {
+            return;
+        }
+        String key;
+        try {
+            key = URLDecoder.decode(line.substring(separator + 1), "UTF-8");
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        uploaded.put(key, line.substring(0, separator));
+    }
+
+    // The key is encoded so that a line holds exactly one entry whatever the artifact path contains.
+    private static String encode(String key) throws UnsupportedEncodingException {
+        return URLEncoder.encode(key, "UTF-8");
+    }
+
+    private static String key(UploadArtifactDetails detail) {
+        return detail.getRepositoryId() + "/" + detail.getArtifactPath() + ":" + detail.getVersion();
+    }
+
+    private static final class AppendLine extends MasterToSlaveFileCallable<Void> {
+        private static final long serialVersionUID = 1L;
+        private final String line;
+
+        AppendLine(String line) {
+            this.line = line;
+        }
+
+        @Override
+        public Void invoke(File file, VirtualChannel channel) throws IOException {
+            Files.write(file.toPath(), line.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.client;
+
+import hudson.init.Terminator;
+import jenkins.util.SystemProperties;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The executor shared by all OCI operations of the plugin, see {@link #bounded}, and its backends. Its tasks mostly
+ * wait on the network, so on a JVM with virtual threads they can run one virtual thread per task, which costs almost
+ * no memory while waiting; this is enabled with the {@code io.jenkins.plugins.oci.client.AsyncExecutors.virtualThreads}
+ * system property. Otherwise, or if virtual threads are not available, a bounded pool of platform threads is used.
+ * At most {@value #MAX_QUEUED_TASKS} tasks wait for one of its threads; beyond that the thread submitting a task runs
+ * it itself, so a burst of work slows down the builds producing it instead of piling up in memory. Threads that must
+ * never block, like the CPS VM thread of a Pipeline, submit through {@link #deferring} instead.
+ * The plugin targets Java 8, so virtual threads are only reached through reflection.
+ */
+public abstract class AsyncExecutors {
+    private static final Logger LOGGER = Logger.getLogger(AsyncExecutors.class.getName());
+    static final String VIRTUAL_THREADS_PROPERTY = AsyncExecutors.class.getName() + ".virtualThreads";
+    private static final String THREAD_NAME_PREFIX = "oci-cloud-client-";
+    static final int MAX_SHARED_THREADS = 64;
+    static final int MAX_QUEUED_TASKS = 256;
+    // Guarded by AsyncExecutors.class. Created on first use, and again after shutdown() for a Jenkins started again
+    // in the same JVM.
+    private static AsyncExecutors shared;
+
+    /**
+     * An executor running at most {@code maxThreads} of its tasks at a time on the shared executor, queueing the
+     * others. With platform threads the shared pool grows to the largest bound requested so far, up to
+     * {@value #MAX_SHARED_THREADS} threads, and its idle threads time out.
+     */
+    public static Executor bounded(int maxThreads) {
+        int threads = Math.max(1, Math.min(maxThreads, MAX_SHARED_THREADS));
+        AsyncExecutors executors = shared();
+        executors.ensureCapacity(threads);
+        return new BoundedExecutor(executors.executor(), threads);
+    }
+
+    /**
+     * Like {@link #bounded}, but a task finding the queue of the shared executor full waits for one of its threads
+     * to become free instead of running in the submitting thread. For threads that must not block on the network,
+     * such as the CPS VM thread starting a Pipeline step.
+     */
+    public static Executor deferring(int maxThreads) {
+        int threads = Math.max(1, Math.min(maxThreads, MAX_SHARED_THREADS));
+        AsyncExecutors executors = shared();
+        executors.ensureCapacity(threads);
+        return new BoundedExecutor(executors.deferringExecutor(), threads);
+    }
+
+    private static synchronized AsyncExecutors shared() {
+        if (shared == null) {
+            shared = create(MAX_SHARED_THREADS);
+        }
+        return shared;
+    }
+
+    /**
+     * Stops the shared executor. The executors returned by {@link #bounded} so far reject their tasks from now on,
+     * the next call creates a new shared executor.
+     */
+    @Terminator
+    public static void shutdown() {
+        AsyncExecutors stopped;
+        synchronized (AsyncExecutors.class) {
+            stopped = shared;
+            shared = null;
+        }
+        if (stopped != null) {
+            stopped.executor().shutdownNow();
+        }
+    }
+
+    abstract ExecutorService executor();
+
+    /**
+     * The shared executor for tasks that must never run in the submitting thread.
+     */
+    Executor deferringExecutor() {
+        return executor();
+    }
+
+    /**
+     * Makes room for {@code threads} tasks to run at the same time.
+     */
+    abstract void ensureCapacity(int threads);
+
+    static AsyncExecutors create(int maxPlatformThreads) {
+        if (SystemProperties.getBoolean(VIRTUAL_THREADS_PROPERTY)) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) {
+                LOGGER.log(Level.INFO, "Running OCI client operations on virtual threads");
+                return new VirtualThreads(virtual);
+            }
+            LOGGER.log(Level.INFO, "Virtual threads are not available on this JVM, using platform threads");
+        }
+        return new PlatformThreads(maxPlatformThreads);
+    }
+
+    // Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_NAME_PREFIX, 1).factory()), or null.
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX, 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Unable to create a virtual thread executor", e);
+            return null;
+        }
+    }
+
+    private static final class VirtualThreads extends AsyncExecutors {
+        private final ExecutorService executor;
+
+        private VirtualThreads(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        ExecutorService executor() {
+            return executor;
+        }
+
+        // Each task gets its own thread, only the per-client bound applies.
+        @Override
+        void ensureCapacity(int threads) {
+        }
+    }
+
+    private static final class PlatformThreads extends AsyncExecutors {
+        private static final long KEEP_ALIVE_SECONDS = 60;
+
+        private final int maxThreads;
+        private final ThreadPoolExecutor executor;
+        // Deferred tasks rejected by the full queue, run by the pool threads as soon as they finish their current task.
+        // There are at most as many as steps submitting through deferring() at the same time.
+        private final Queue<Runnable> deferred = new ConcurrentLinkedQueue<>();
+
+        private PlatformThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+            AtomicInteger count = new AtomicInteger();
+            executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(MAX_QUEUED_TASKS), r -> {
+                Thread thread = new Thread(r, THREAD_NAME_PREFIX + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, this::rejected) {
+                @Override
+                protected void afterExecute(Runnable task, Throwable error) {
+                    runDeferred();
+                }
+            };
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        ExecutorService executor() {
+            return executor;
+        }
+
+        @Override
+        Executor deferringExecutor() {
+            return task -> executor.execute(new Deferred(task));
+        }
+
+        // Unlike CallerRunsPolicy, does not drop the task silently once shut down, its caller has to learn about it.
+        private void rejected(Runnable task, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("OCI client executor is shut down");
+            }
+            if (task instanceof Deferred) {
+                deferred.add(task);
+                // The queue was full a moment ago, so its tasks will run the deferred one when they finish. Unless
+                // they all finished in the meantime.
+                if (executor.getQueue().isEmpty()) {
+                    executor.execute(new Deferred(this::runDeferred));
+                }
+                return;
+            }
+            task.run();
+        }
+
+        private void runDeferred() {
+            Runnable task;
+            while ((task = deferred.poll()) != null) {
+                task.run();
+            }
+        }
+
+        // The core size grows with the requests, so threads are added before tasks are queued.
+        @Override
+        synchronized void ensureCapacity(int threads) {
+            int size = Math.min(threads, maxThreads);
+            if (size > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(size);
+                executor.setCorePoolSize(size);
+            }
+        }
+    }
+
+    // Marks the tasks submitted through deferringExecutor().
+    private static final class Deferred implements Runnable {
+        private final Runnable task;
+
+        private Deferred(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.client;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs at most a given number of tasks at a time on a shared executor, queueing the others in submission order.
+ * This lets each client bound its own concurrency without a thread pool of its own.
+ *
+ * <p>Each of the slots hands one task to the shared executor, which then keeps running the queued tasks of this
+ * executor until there are none left. Only {@link #execute} submits to the shared executor, never one of its own
+ * threads, so when the shared executor pushes back by running a task in the submitting thread, it is the step
+ * submitting the work that slows down.
+ */
+final class BoundedExecutor implements Executor {
+    private static final Logger LOGGER = Logger.getLogger(BoundedExecutor.class.getName());
+
+    private final Executor delegate;
+    private final int limit;
+    // Guarded by this.
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private int running;
+
+    BoundedExecutor(Executor delegate, int limit) {
+        this.delegate = delegate;
+        this.limit = Math.max(1, limit);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        synchronized (this) {
+            if (running >= limit) {
+                queue.add(task);
+                return;
+            }
+            running++;
+        }
+        try {
+            delegate.execute(() -> drain(task));
+        } catch (RuntimeException e) {
+            // Rejected, for example while Jenkins shuts down; do not hold the slot forever.
+            synchronized (this) {
+                running--;
+            }
+            throw e;
+        }
+    }
+
+    private void drain(Runnable first) {
+        Runnable task = first;
+        while (task != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // Keep running the queued tasks, their callers are waiting for them.
+                LOGGER.log(Level.WARNING, "Unexpected error in OCI client task", e);
+            }
+            synchronized (this) {
+                task = queue.poll();
+                if (task == null) {
+                    running--;
+                }
+            }
+        }
+    }
+}
@@ -5,11 +5,40 @@
 
 package io.jenkins.plugins.oci.client;
 
+import com.oracle.bmc.devops.requests.CreateDeploymentRequest;
+import com.oracle.bmc.devops.requests.GetDeploymentRequest;
+import com.oracle.bmc.devops.responses.CreateDeploymentResponse;
+import com.oracle.bmc.devops.responses.GetDeploymentResponse;
 import com.oracle.bmc.model.BmcException;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * OCI operations of the plugin. The asynchronous operations run on an executor shared by all clients, bounded
+ * per client by the {@code maxAsyncThreads} given to the {@link CloudClientFactory}; their futures complete
+ * exceptionally with the {@link BmcException} of a failed call. Cancelling a future before its call started skips
+ * the call.
+ */
 public interface CloudClient extends AutoCloseable {
     /**
      * @throws BmcException if an error occurs
      */
     void authenticate() throws BmcException;
+
+    /**
+     * @param endpoint the DevOps endpoint of the region of the pipeline
+     */
+    CompletableFuture<CreateDeploymentResponse> createDeployment(String endpoint, CreateDeploymentRequest request);
+
+    /**
+     * @param endpoint the DevOps endpoint of the region of the deployment
+     */
+    CompletableFuture<GetDeploymentResponse> getDeployment(String endpoint, GetDeploymentRequest request);
+
+    /**
+     * The executor running the asynchronous operations, with the same bound. Blocking work that goes with them,
+     * such as reading the content of an artifact, can run on it as well.
+     */
+    Executor getAsyncExecutor();
 }
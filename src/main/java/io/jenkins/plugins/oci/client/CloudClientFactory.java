@@ -6,5 +6,9 @@
 package io.jenkins.plugins.oci.client;
 
 public interface CloudClientFactory {
+    /**
+     * @param maxAsyncThreads how many asynchronous operations of the client may run at the same time
+     * @throws IllegalArgumentException if the credentials cannot be found or read
+     */
     CloudClient createClient(String credentialsId, int maxAsyncThreads);
 }
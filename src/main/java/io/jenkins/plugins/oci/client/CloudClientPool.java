@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.client;
+
+import com.codahale.metrics.Timer;
+import io.jenkins.plugins.oci.metrics.PluginMetrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shares SDK clients between concurrent builds. A client is created on first use of its key and handed out through
+ * reference counted {@link Lease}s; it is closed once it has not been leased for the idle timeout, or when Jenkins
+ * shuts down. Callers must not change the endpoint or region of a pooled client, the key has to identify them.
+ */
+public class CloudClientPool<K, C extends AutoCloseable> {
+    private static final Logger LOGGER = Logger.getLogger(CloudClientPool.class.getName());
+
+    public interface ClientFactory<C> {
+        C create() throws Exception;
+    }
+
+    private final String name;
+    private final long idleTimeoutMillis;
+    private final Map<K, Entry<C>> entries = new HashMap<>();
+
+    public CloudClientPool(String name, long idleTimeoutMillis) {
+        this.name = name;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Leases the client of the key, creating it first if needed. The client is created outside the pool lock, so a
+     * slow creation only holds up the callers asking for the same key; they wait for it and share the new client.
+     * When the creation fails every one of them gets the error and the next call tries again.
+     */
+    public Lease<C> acquire(K key, ClientFactory<C> factory) throws Exception {
+        Entry<C> entry;
+        boolean creating = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry<>();
+                entries.put(key, entry);
+                creating = true;
+            }
+            entry.references++;
+        }
+        if (creating) {
+            try (Timer.Context ignored = PluginMetrics.time(PluginMetrics.CLIENT_CREATION)) {
+                entry.created.complete(factory.create());
+            } catch (Throwable e) {
+                synchronized (this) {
+                    entries.remove(key, entry);
+                }
+                entry.created.completeExceptionally(e);
+            }
+        }
+        C client;
+        try {
+            client = entry.created.get();
+        } catch (ExecutionException e) {
+            release(entry);
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            release(entry);
+            throw e;
+        }
+        return new Lease<>(this, entry, client);
+    }
+
+    private void release(Entry<C> entry) {
+        C toClose = null;
+        synchronized (this) {
+            entry.references--;
+            entry.lastReleasedMillis = System.currentTimeMillis();
+            if (entry.closeWhenReleased && entry.references == 0) {
+                toClose = entry.client();
+            }
+        }
+        if (toClose != null) {
+            close(toClose);
+        }
+    }
+
+    /**
+     * Closes the clients that have not been leased for the idle timeout.
+     */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        evict(entry -> entry.references == 0 && now - entry.lastReleasedMillis >= idleTimeoutMillis);
+    }
+
+    /**
+     * Removes the clients whose key matches, for example because the credentials they were created with changed.
+     * Clients still leased are closed when their last lease is released.
+     */
+    public void invalidate(Predicate<K> keys) {
+        List<C> toClose = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<K, Entry<C>>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<K, Entry<C>> e = it.next();
+                if (keys.test(e.getKey())) {
+                    it.remove();
+                    if (e.getValue().references == 0) {
+                        toClose.add(e.getValue().client());
+                    } else {
+                        e.getValue().closeWhenReleased = true;
+                    }
+                }
+            }
+        }
+        toClose.forEach(this::close);
+    }
+
+    public void closeAll() {
+        invalidate(key -> true);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict(Predicate<Entry<C>> idle) {
+        List<C> toClose = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry<C>> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry<C> entry = it.next();
+                if (idle.test(entry)) {
+                    it.remove();
+                    toClose.add(entry.client());
+                }
+            }
+        }
+        if (!toClose.isEmpty()) {
+            LOGGER.log(Level.FINE, "Closing {0} idle {1}", new Object[] {toClose.size(), name});
+        }
+        toClose.forEach(this::close);
+    }
+
+    private void close(C client) {
+        if (client == null) {
+            // Its creation failed, there is nothing to close.
+            return;
+        }
+        try {
+            client.close();
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Error closing " + name + ":", e);
+        }
+    }
+
+    private static final class Entry<C> {
+        // Completed by the caller that created the entry, other callers for the same key wait on it.
+        private final CompletableFuture<C> created = new CompletableFuture<>();
+        private int references;
+        private long lastReleasedMillis;
+        private boolean closeWhenReleased;
+
+        // Null while the client is being created or when its creation failed.
+        private C client() {
+            return created.isDone() && !created.isCompletedExceptionally() ? created.join() : null;
+        }
+    }
+
+    /**
+     * A client borrowed from the pool. Closing the lease returns the client to the pool, it does not close the client.
+     */
+    public static final class Lease<C extends AutoCloseable> implements AutoCloseable {
+        private final CloudClientPool<?, C> pool;
+        private final Entry<C> entry;
+        private final C client;
+        private boolean released;
+
+        private Lease(CloudClientPool<?, C> pool, Entry<C> entry, C client) {
+            this.pool = pool;
+            this.entry = entry;
+            this.client = client;
+        }
+
+        public C get() {
+            return client;
+        }
+
+        /**
+         * Another lease of the same client, closed independently of this one. Lets a component that keeps using the
+         * client after the caller is done with it hold its own reference. This lease must not be closed yet.
+         */
+        public Lease<C> retain() {
+            synchronized (pool) {
+                entry.references++;
+            }
+            return new Lease<>(pool, entry, client);
+        }
+
+        @Override
+        public void close() {
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            pool.release(entry);
+        }
+    }
+}
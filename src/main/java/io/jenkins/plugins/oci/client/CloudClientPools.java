@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.client;
+
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import com.oracle.bmc.devops.DevopsClient;
+import com.oracle.bmc.genericartifactscontent.GenericArtifactsContentClient;
+import com.oracle.bmc.loggingsearch.LogSearchClient;
+import hudson.Extension;
+import hudson.init.Terminator;
+import hudson.model.PeriodicWork;
+import io.jenkins.plugins.oci.credentials.CloudCredentialsListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The controller-wide client pools, closed when Jenkins shuts down. Pooled clients keep their HTTP connections
+ * alive between builds. All pools are keyed by {@link #clientKey}.
+ */
+public final class CloudClientPools {
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    public static final CloudClientPool<String, GenericArtifactsContentClient> ARTIFACT_CLIENTS =
+            new CloudClientPool<>("generic artifacts content clients", IDLE_TIMEOUT_MILLIS);
+    public static final CloudClientPool<String, DevopsClient> DEVOPS_CLIENTS =
+            new CloudClientPool<>("DevOps clients", IDLE_TIMEOUT_MILLIS);
+    // Keyed by region id rather than endpoint, the clients are only ever pointed at a region.
+    public static final CloudClientPool<String, LogSearchClient> LOG_SEARCH_CLIENTS =
+            new CloudClientPool<>("log search clients", IDLE_TIMEOUT_MILLIS);
+
+    private CloudClientPools() {
+    }
+
+    /**
+     * The key of the client for the given credentials and endpoint. The fingerprint changes when the API key of the
+     * credentials is rotated, which retires the clients signing with the old key. Endpoints differing only by a
+     * trailing '/' share a client.
+     */
+    public static String clientKey(String credentialsId, AuthenticationDetailsProvider provider, String endpoint) {
+        String normalized = endpoint.trim();
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return credentialsId + "|" + provider.getUserId() + "|" + provider.getFingerprint() + "|" + normalized;
+    }
+
+    /**
+     * Retires the pooled clients signing with the given credentials, for example because they were edited.
+     */
+    public static void invalidateCredentials(String credentialsId) {
+        ARTIFACT_CLIENTS.invalidate(key -> key.startsWith(credentialsId + "|"));
+        DEVOPS_CLIENTS.invalidate(key -> key.startsWith(credentialsId + "|"));
+        LOG_SEARCH_CLIENTS.invalidate(key -> key.startsWith(credentialsId + "|"));
+    }
+
+    @Extension
+    public static final class CredentialsInvalidation implements CloudCredentialsListener {
+        @Override
+        public void onChanged(String credentialsId) {
+            invalidateCredentials(credentialsId);
+        }
+    }
+
+    @Terminator
+    public static void shutdown() {
+        ARTIFACT_CLIENTS.closeAll();
+        DEVOPS_CLIENTS.closeAll();
+        LOG_SEARCH_CLIENTS.closeAll();
+    }
+
+    @Extension
+    public static final class IdleClientEviction extends PeriodicWork {
+        @Override
+        public long getRecurrencePeriod() {
+            return MIN;
+        }
+
+        @Override
+        protected void doRun() {
+            ARTIFACT_CLIENTS.evictIdle();
+            DEVOPS_CLIENTS.evictIdle();
+            LOG_SEARCH_CLIENTS.evictIdle();
+        }
+    }
+}
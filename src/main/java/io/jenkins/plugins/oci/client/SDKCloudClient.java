@@ -5,28 +5,54 @@
 
 package io.jenkins.plugins.oci.client;
 
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import com.oracle.bmc.devops.DevopsClient;
+import com.oracle.bmc.devops.requests.CreateDeploymentRequest;
+import com.oracle.bmc.devops.requests.GetDeploymentRequest;
+import com.oracle.bmc.devops.responses.CreateDeploymentResponse;
+import com.oracle.bmc.devops.responses.GetDeploymentResponse;
 import com.oracle.bmc.http.DefaultConfigurator;
 import io.jenkins.plugins.oci.messages.Messages.CloudCredentialMessages;
+import io.jenkins.plugins.oci.metrics.PluginMetrics;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.codahale.metrics.Timer;
 import com.oracle.bmc.ClientRuntime;
-import com.oracle.bmc.auth.SimpleAuthenticationDetailsProvider;
 import com.oracle.bmc.identity.Identity;
 import com.oracle.bmc.identity.IdentityClient;
 import com.oracle.bmc.identity.requests.*;
 import com.oracle.bmc.model.BmcException;
 import jenkins.model.Jenkins;
 
+/**
+ * {@link CloudClient} backed by the OCI SDK. The SDK clients are leased from {@link CloudClientPools} for each
+ * call, so they are shared with every other user of the same credentials and endpoint.
+ */
 public class SDKCloudClient implements CloudClient {
     private static final Logger LOGGER = Logger.getLogger(SDKCloudClient.class.getName());
 
-    private SimpleAuthenticationDetailsProvider provider;
-    private String regionId;
+    private final String credentialsId;
+    private final AuthenticationDetailsProvider provider;
+    private final String regionId;
+    private final Executor executor;
+
+    /**
+     * A client for {@link #authenticate()} only, for example to test credentials that are not saved yet. Its
+     * asynchronous operations run in the calling thread.
+     */
+    public SDKCloudClient(AuthenticationDetailsProvider provider, String regionId) {
+        this(null, provider, regionId, Runnable::run);
+    }
 
-    public SDKCloudClient(SimpleAuthenticationDetailsProvider provider, String regionId) {
+    SDKCloudClient(String credentialsId, AuthenticationDetailsProvider provider, String regionId, Executor executor) {
+        this.credentialsId = credentialsId;
         this.provider = provider;
         this.regionId = regionId;
+        this.executor = executor;
         ClientRuntime.setClientUserAgent("Oracle-Jenkins/" + Jenkins.VERSION);
     }
 
@@ -57,8 +83,59 @@ public class SDKCloudClient implements CloudClient {
     }
 
     @Override
-    public void close() throws Exception {
-        // TODO Auto-generated method stub
+    public CompletableFuture<CreateDeploymentResponse> createDeployment(String endpoint, CreateDeploymentRequest request) {
+        return call(() -> {
+            try (CloudClientPool.Lease<DevopsClient> lease = leaseDevopsClient(endpoint);
+                 Timer.Context ignored = PluginMetrics.time(PluginMetrics.CREATE_DEPLOYMENT)) {
+                return lease.get().createDeployment(request);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<GetDeploymentResponse> getDeployment(String endpoint, GetDeploymentRequest request) {
+        return call(() -> {
+            try (CloudClientPool.Lease<DevopsClient> lease = leaseDevopsClient(endpoint)) {
+                return lease.get().getDeployment(request);
+            }
+        });
+    }
 
+    private CloudClientPool.Lease<DevopsClient> leaseDevopsClient(String endpoint) throws Exception {
+        return CloudClientPools.DEVOPS_CLIENTS.acquire(CloudClientPools.clientKey(credentialsId, provider, endpoint), () -> {
+            DevopsClient client = new DevopsClient(provider);
+            client.setEndpoint(endpoint);
+            return client;
+        });
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return executor;
+    }
+
+    private <T> CompletableFuture<T> call(Callable<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    // Cancelled before it started.
+                    return;
+                }
+                try {
+                    future.complete(operation.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    // The SDK clients belong to the pools and the executor is shared, there is nothing of our own to release.
+    @Override
+    public void close() {
     }
 }
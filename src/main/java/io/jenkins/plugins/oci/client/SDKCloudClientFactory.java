@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.client;
+
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import io.jenkins.plugins.oci.credentials.CloudCredentials;
+import io.jenkins.plugins.oci.credentials.CloudCredentialsCache;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Creates {@link SDKCloudClient}s for saved credentials. All clients run their asynchronous operations on the
+ * controller-wide executor of {@link AsyncExecutors}, each bounded to its own {@code maxAsyncThreads}.
+ */
+public final class SDKCloudClientFactory implements CloudClientFactory {
+    private static final SDKCloudClientFactory INSTANCE = new SDKCloudClientFactory();
+
+    private SDKCloudClientFactory() {
+    }
+
+    public static SDKCloudClientFactory get() {
+        return INSTANCE;
+    }
+
+    @Override
+    public CloudClient createClient(String credentialsId, int maxAsyncThreads) {
+        return createClient(credentialsId, AsyncExecutors.bounded(maxAsyncThreads));
+    }
+
+    /**
+     * Like {@link #createClient(String, int)}, but the asynchronous operations never run in the calling thread, even
+     * when the controller-wide executor is saturated; see {@link AsyncExecutors#deferring}. For the CPS VM thread.
+     */
+    public CloudClient createDeferringClient(String credentialsId, int maxAsyncThreads) {
+        return createClient(credentialsId, AsyncExecutors.deferring(maxAsyncThreads));
+    }
+
+    private static CloudClient createClient(String credentialsId, Executor executor) {
+        CloudCredentials credentials;
+        AuthenticationDetailsProvider provider;
+        try {
+            credentials = CloudCredentialsCache.get().getCredentials(credentialsId);
+            provider = CloudCredentialsCache.get().getAuthProvider(credentialsId);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        return new SDKCloudClient(credentialsId, provider, credentials.getRegionId(), executor);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.credentials;
+
+import com.cloudbees.plugins.credentials.CredentialsProvider;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import com.cloudbees.plugins.credentials.domains.DomainRequirement;
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.ItemGroup;
+import hudson.model.Saveable;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import com.codahale.metrics.Timer;
+import io.jenkins.plugins.oci.metrics.PluginMetrics;
+import jenkins.model.Jenkins;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caches the OCI credentials of the controller by id, together with an authentication provider for each of them
+ * whose private key is decrypted once instead of every time a client is created, see
+ * {@link DecryptedKeyAuthenticationDetailsProvider}. All OCI credentials are looked up at
+ * once on the first miss, so steps no longer go through all credentials of Jenkins each time they run.
+ *
+ * <p>Credentials are kept in the system credentials store and in folders. The index is dropped whenever either of
+ * them is saved. Editing credentials replaces their instance, so an authentication provider is only reused while
+ * the credentials it was built from are still the ones found by id; otherwise it is rebuilt, and the
+ * {@link CloudCredentialsListener}s are told to retire whatever signs with the old one. Rebuilding the index drops
+ * the providers of credentials that were edited or deleted in the same way.
+ */
+public final class CloudCredentialsCache {
+    private static final Logger LOGGER = Logger.getLogger(CloudCredentialsCache.class.getName());
+    private static final CloudCredentialsCache INSTANCE = new CloudCredentialsCache();
+
+    // Null until loaded or after an invalidation.
+    private volatile Map<String, CloudCredentials> credentials;
+    private final Map<String, CachedProvider> providers = new ConcurrentHashMap<>();
+    // Guarded by this; a lookup that started before an invalidation must not store its result.
+    private long generation;
+
+    private CloudCredentialsCache() {
+    }
+
+    public static CloudCredentialsCache get() {
+        return INSTANCE;
+    }
+
+    public CloudCredentials getCredentials(String credentialsId) throws Exception {
+        Map<String, CloudCredentials> current = credentials;
+        CloudCredentials found = current == null ? null : current.get(credentialsId);
+        if (found == null) {
+            // Also reloads on a miss, the credentials may have been created since the last lookup.
+            found = reload().get(credentialsId);
+        }
+        if (found == null) {
+            throw new Exception("This credentialId couldn't be found.");
+        }
+        return found;
+    }
+
+    public AuthenticationDetailsProvider getAuthProvider(String credentialsId) throws Exception {
+        try (Timer.Context ignored = PluginMetrics.time(PluginMetrics.AUTH_RESOLUTION)) {
+            return resolveAuthProvider(credentialsId);
+        }
+    }
+
+    private AuthenticationDetailsProvider resolveAuthProvider(String credentialsId) throws Exception {
+        CloudCredentials cloudCredentials = getCredentials(credentialsId);
+        CachedProvider cached = providers.get(credentialsId);
+        if (cached != null && cached.credentials == cloudCredentials) {
+            return cached.provider;
+        }
+        if (cached != null) {
+            fireChanged(credentialsId);
+        }
+        CachedProvider created = new CachedProvider(cloudCredentials, DecryptedKeyAuthenticationDetailsProvider.of(cloudCredentials));
+        providers.put(credentialsId, created);
+        return created.provider;
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        credentials = null;
+    }
+
+    private Map<String, CloudCredentials> reload() {
+        long started;
+        synchronized (this) {
+            started = generation;
+        }
+        Map<String, CloudCredentials> loaded = new HashMap<>();
+        for (CloudCredentials c : CredentialsProvider.lookupCredentials(CloudCredentials.class, Jenkins.get(),
+                ACL.SYSTEM, Collections.<DomainRequirement>emptyList())) {
+            // The first match wins, as with the previous linear lookup.
+            loaded.putIfAbsent(c.getId(), c);
+        }
+        boolean current;
+        synchronized (this) {
+            current = generation == started;
+            if (current) {
+                credentials = loaded;
+            }
+        }
+        if (current) {
+            dropStaleProviders(loaded);
+        }
+        return loaded;
+    }
+
+    // Providers of credentials that are gone would otherwise be kept, and their clients pooled, until Jenkins stops.
+    private void dropStaleProviders(Map<String, CloudCredentials> loaded) {
+        for (Map.Entry<String, CachedProvider> entry : providers.entrySet()) {
+            if (loaded.get(entry.getKey()) != entry.getValue().credentials
+                    && providers.remove(entry.getKey(), entry.getValue())) {
+                fireChanged(entry.getKey());
+            }
+        }
+    }
+
+    private static void fireChanged(String credentialsId) {
+        for (CloudCredentialsListener listener : CloudCredentialsListener.all()) {
+            try {
+                listener.onChanged(credentialsId);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Failed to notify " + listener + " of changed credentials " + credentialsId, e);
+            }
+        }
+    }
+
+    private static final class CachedProvider {
+        private final CloudCredentials credentials;
+        private final AuthenticationDetailsProvider provider;
+
+        private CachedProvider(CloudCredentials credentials, AuthenticationDetailsProvider provider) {
+            this.credentials = credentials;
+            this.provider = provider;
+        }
+    }
+
+    @Extension
+    public static final class CredentialsSaveListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            // Folder credentials are saved with the folder, the Jenkins instance is an item group as well.
+            if (o instanceof SystemCredentialsProvider || o instanceof ItemGroup) {
+                LOGGER.log(Level.FINE, "Credentials may have changed in {0}, dropping cached OCI credentials", file);
+                INSTANCE.invalidate();
+            }
+        }
+    }
+}
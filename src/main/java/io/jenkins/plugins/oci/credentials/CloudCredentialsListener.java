@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.credentials;
+
+import hudson.ExtensionList;
+import hudson.ExtensionPoint;
+
+/**
+ * Notified by {@link CloudCredentialsCache} when OCI credentials it built an authentication provider for were edited
+ * or deleted, so that whatever signs with the old provider can be retired.
+ */
+public interface CloudCredentialsListener extends ExtensionPoint {
+    void onChanged(String credentialsId);
+
+    static ExtensionList<CloudCredentialsListener> all() {
+        return ExtensionList.lookup(CloudCredentialsListener.class);
+    }
+}
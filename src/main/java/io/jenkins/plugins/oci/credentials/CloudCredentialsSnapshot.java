@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.credentials;
+
+import com.oracle.bmc.Region;
+import com.oracle.bmc.auth.SimpleAuthenticationDetailsProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Serializable copy of {@link CloudCredentials} that can be sent over the remoting channel so that an agent can
+ * sign OCI requests itself. What reaches the agent is the fingerprint, tenancy, user and region, the API key PEM as
+ * stored in the credentials, so still encrypted if it was, and its pass phrase in clear text. An agent cannot decrypt
+ * a {@code Secret}, and the SDK on the agent needs both to read the key for every request it signs, so there is no
+ * way around sending them; the copy is not persisted or printed.
+ * <p>
+ * The key and pass phrase are held in arrays rather than strings so that they can be cleared with {@link #clear()}
+ * once the uploads that needed them are done. Each upload takes its own {@link #copy()} and clears it when it ends,
+ * on the agent or, when the workspace is on the controller and nothing is serialized, on the controller. The
+ * decrypted strings returned by the credentials and the buffers of the remoting channel cannot be cleared.
+ */
+public final class CloudCredentialsSnapshot implements Serializable {
+    private static final long serialVersionUID = 2L;
+
+    private final String fingerprint;
+    private final byte[] apikey;
+    private final char[] passphrase;
+    private final String tenantId;
+    private final String userId;
+    private final String regionId;
+
+    private CloudCredentialsSnapshot(String fingerprint, byte[] apikey, char[] passphrase, String tenantId,
+                                     String userId, String regionId) {
+        this.fingerprint = fingerprint;
+        this.apikey = apikey;
+        this.passphrase = passphrase;
+        this.tenantId = tenantId;
+        this.userId = userId;
+        this.regionId = regionId;
+    }
+
+    public static CloudCredentialsSnapshot of(CloudCredentials credentials) {
+        String passphrase = credentials.getPassphrase();
+        return new CloudCredentialsSnapshot(credentials.getFingerprint(),
+                credentials.getApikey().getBytes(StandardCharsets.UTF_8),
+                passphrase == null || passphrase.isEmpty() ? null : passphrase.toCharArray(),
+                credentials.getTenantId(), credentials.getUserId(), credentials.getRegionId());
+    }
+
+    /**
+     * Returns a copy with arrays of its own, which can be cleared without affecting this snapshot.
+     */
+    public CloudCredentialsSnapshot copy() {
+        return new CloudCredentialsSnapshot(fingerprint, apikey.clone(),
+                passphrase == null ? null : passphrase.clone(), tenantId, userId, regionId);
+    }
+
+    /**
+     * The provider reads the key and pass phrase of this snapshot, so it must not be used after {@link #clear()}.
+     */
+    public SimpleAuthenticationDetailsProvider toAuthProvider() {
+        return SimpleAuthenticationDetailsProvider.builder()
+                .fingerprint(fingerprint)
+                .passphraseCharacters(passphrase)
+                .privateKeySupplier(() -> new ByteArrayInputStream(apikey))
+                .tenantId(tenantId)
+                .userId(userId)
+                .region(Region.fromRegionId(regionId))
+                .build();
+    }
+
+    /**
+     * Overwrites the key and pass phrase held by this snapshot.
+     */
+    public void clear() {
+        Arrays.fill(apikey, (byte) 0);
+        if (passphrase != null) {
+            Arrays.fill(passphrase, '\0');
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CloudCredentialsSnapshot[userId=" + userId + ", tenantId=" + tenantId + ", regionId=" + regionId + "]";
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.oracle.bmc.devops.model.DeploymentArgument;
+import com.oracle.bmc.devops.model.DeploymentArgumentCollection;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Parses the deployment arguments of a step, a JSON object such as {@code {"version": "1.2", "replicas": 3}},
+ * straight into a {@link DeploymentArgumentCollection} in one streaming pass. String values are used as they are,
+ * numbers and booleans by their JSON text, and objects or arrays as compact JSON. The size of the arguments and
+ * the nesting of values are limited, and errors give the line and column they were found at.
+ */
+final class DeploymentArgumentParser {
+    static final int MAX_LENGTH = 1024 * 1024;
+    static final int MAX_DEPTH = 32;
+    // ObjectReader is immutable and thread-safe, unlike configuring a new ObjectMapper on each call.
+    private static final ObjectReader READER = new ObjectMapper().reader();
+
+    private DeploymentArgumentParser() {
+    }
+
+    static DeploymentArgumentCollection parse(String json) {
+        if (json.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("Arguments must not be longer than " + MAX_LENGTH + " characters");
+        }
+        List<DeploymentArgument> arguments = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        try (JsonParser parser = READER.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw error(parser, "Arguments must be a JSON object");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                if (!names.add(name)) {
+                    throw error(parser, "Duplicate argument " + name);
+                }
+                parser.nextToken();
+                arguments.add(DeploymentArgument.builder().name(name).value(value(parser, name)).build());
+            }
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                throw error(parser, "Unexpected content after the arguments");
+            }
+        } catch (JsonProcessingException e) {
+            JsonLocation location = e.getLocation();
+            throw new IllegalArgumentException("Error parsing arguments: " + e.getOriginalMessage()
+                    + (location == null ? "" : at(location)), e);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error parsing arguments: " + e.getMessage(), e);
+        }
+        return DeploymentArgumentCollection.builder().items(arguments).build();
+    }
+
+    // The parser is on the first token of the value.
+    private static String value(JsonParser parser, String name) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING || token.isNumeric() || token.isBoolean()) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            throw error(parser, "Argument " + name + " must not be null");
+        }
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = READER.getFactory().createGenerator(writer)) {
+            int depth = 0;
+            do {
+                if (token.isStructStart() && ++depth > MAX_DEPTH) {
+                    throw error(parser, "Argument " + name + " is nested deeper than " + MAX_DEPTH + " levels");
+                }
+                if (token.isStructEnd()) {
+                    depth--;
+                }
+                generator.copyCurrentEvent(parser);
+            } while (depth > 0 && (token = parser.nextToken()) != null);
+        }
+        return writer.toString();
+    }
+
+    // Points at the start of the offending token, the current location is already past it.
+    private static IllegalArgumentException error(JsonParser parser, String message) {
+        return new IllegalArgumentException(message + at(parser.getTokenLocation()));
+    }
+
+    private static String at(JsonLocation location) {
+        return " at line " + location.getLineNr() + ", column " + location.getColumnNr();
+    }
+
+    /**
+     * The arguments as {@code {name=value, ...}}, for the build log.
+     */
+    static String toString(DeploymentArgumentCollection arguments) {
+        StringBuilder sb = new StringBuilder("{");
+        for (DeploymentArgument argument : arguments.getItems()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(argument.getName()).append('=').append(argument.getValue());
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.oracle.bmc.Region;
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import com.oracle.bmc.devops.model.Deployment;
+import com.oracle.bmc.loggingsearch.LogSearchClient;
+import com.oracle.bmc.loggingsearch.model.SearchLogsDetails;
+import com.oracle.bmc.loggingsearch.model.SearchResult;
+import com.oracle.bmc.loggingsearch.requests.SearchLogsRequest;
+import com.oracle.bmc.loggingsearch.responses.SearchLogsResponse;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.utils.CommonUtil;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copies the log entries of a deployment from the OCI Logging service into the build console. Each call to
+ * {@link #tail()} only searches for entries at or after the newest entry already printed, and entries sharing that
+ * timestamp are recognized by their id, so no entry is fetched twice across calls or printed twice. The search client
+ * is leased from {@link CloudClientPools#LOG_SEARCH_CLIENTS} for the region of the deployment.
+ */
+class DeploymentLogTailer implements AutoCloseable {
+    private static final int PAGE_LIMIT = 500;
+    private static final String QUERY = "search \"%s/%s/%s\" | where data.deploymentId = '%s' | sort by datetime asc";
+
+    private final CloudClientPool.Lease<LogSearchClient> lease;
+    private final String query;
+    private final TaskListener listener;
+    private Date cursor;
+    // Ids of the printed entries whose time equals the cursor.
+    private final Set<String> printedAtCursor = new HashSet<>();
+    private boolean reportedFailure;
+
+    DeploymentLogTailer(CloudClientPool.Lease<LogSearchClient> lease, Deployment deployment, String logGroupId,
+                        String logId, TaskListener listener) {
+        this.lease = lease;
+        this.query = String.format(QUERY, deployment.getCompartmentId(), logGroupId, logId, deployment.getId());
+        this.listener = listener;
+        this.cursor = deployment.getTimeCreated() != null ? deployment.getTimeCreated() : new Date();
+    }
+
+    /**
+     * A tailer for the logs of the deployment, or null if they cannot be searched, for example because the region of
+     * the deployment is unknown to the SDK; this is reported to the build once and does not fail it.
+     */
+    static DeploymentLogTailer open(String credentialsId, AuthenticationDetailsProvider provider, Deployment deployment,
+                                    String logGroupId, String logId, TaskListener listener) {
+        Region region;
+        try {
+            region = Region.fromRegionCode(CommonUtil.parseRegionFromOCID(deployment.getId()));
+        } catch (IllegalArgumentException e) {
+            listener.getLogger().println("Not streaming deployment logs, the region of deployment " + deployment.getId()
+                    + " is unknown: " + e.getMessage());
+            return null;
+        }
+        CloudClientPool.Lease<LogSearchClient> lease;
+        try {
+            lease = CloudClientPools.LOG_SEARCH_CLIENTS.acquire(
+                    CloudClientPools.clientKey(credentialsId, provider, region.getRegionId()), () -> {
+                        LogSearchClient client = new LogSearchClient(provider);
+                        client.setRegion(region);
+                        return client;
+                    });
+        } catch (Exception e) {
+            listener.getLogger().println("Not streaming deployment logs: " + e.getMessage());
+            return null;
+        }
+        return new DeploymentLogTailer(lease, deployment, logGroupId, logId, listener);
+    }
+
+    /**
+     * Prints the entries logged since the previous call. Failures are reported once and otherwise ignored, the logs
+     * are informational and must not fail the deployment step.
+     */
+    void tail() {
+        try {
+            Date end = new Date();
+            String page = null;
+            do {
+                SearchLogsResponse response = lease.get().searchLogs(SearchLogsRequest.builder()
+                        .searchLogsDetails(SearchLogsDetails.builder()
+                                .timeStart(cursor)
+                                .timeEnd(end)
+                                .searchQuery(query)
+                                .isReturnFieldInfo(false)
+                                .build())
+                        .limit(PAGE_LIMIT)
+                        .page(page)
+                        .build());
+                for (SearchResult result : response.getSearchResponse().getResults()) {
+                    print(result);
+                }
+                page = response.getOpcNextPage();
+            } while (page != null);
+        } catch (Exception e) {
+            if (!reportedFailure) {
+                reportedFailure = true;
+                listener.getLogger().println("Unable to fetch deployment logs: " + e.getMessage());
+            }
+        }
+    }
+
+    private void print(SearchResult result) {
+        if (!(result.getData() instanceof Map)) {
+            return;
+        }
+        Object logContent = ((Map<?, ?>) result.getData()).get("logContent");
+        if (!(logContent instanceof Map)) {
+            return;
+        }
+        Map<?, ?> entry = (Map<?, ?>) logContent;
+        String id = String.valueOf(entry.get("id"));
+        Date time = parseTime(entry.get("time"));
+        if (time == null || time.before(cursor)) {
+            return;
+        }
+        if (time.after(cursor)) {
+            cursor = time;
+            printedAtCursor.clear();
+        }
+        if (!printedAtCursor.add(id)) {
+            return;
+        }
+        Object data = entry.get("data");
+        Object message = data instanceof Map ? ((Map<?, ?>) data).get("message") : data;
+        listener.getLogger().println("[" + time.toInstant() + "] " + message);
+    }
+
+    private static Date parseTime(Object time) {
+        if (time instanceof Number) {
+            return new Date(((Number) time).longValue());
+        }
+        if (time instanceof String) {
+            try {
+                return Date.from(Instant.parse((String) time));
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        lease.close();
+    }
+}
@@ -5,19 +5,16 @@
 
 package io.jenkins.plugins.oci.deployment;
 
-import com.google.common.annotations.VisibleForTesting;
+import com.codahale.metrics.Timer;
 import com.google.common.base.Strings;
 import com.oracle.bmc.auth.AuthenticationDetailsProvider;
-import com.oracle.bmc.auth.SimpleAuthenticationDetailsProvider;
 import com.oracle.bmc.devops.DevopsClient;
 import com.oracle.bmc.model.BmcException;
 import com.oracle.bmc.devops.model.CreateDeployPipelineDeploymentDetails;
 import com.oracle.bmc.devops.model.Deployment;
 import com.oracle.bmc.devops.model.Deployment.LifecycleState;
-import com.oracle.bmc.devops.model.DeploymentArgument;
 import com.oracle.bmc.devops.model.DeploymentArgumentCollection;
 import com.oracle.bmc.devops.requests.CreateDeploymentRequest;
-import com.oracle.bmc.devops.requests.GetDeploymentRequest;
 import com.oracle.bmc.devops.responses.CreateDeploymentResponse;
 import hudson.Launcher;
 import hudson.Extension;
@@ -31,17 +28,19 @@ import hudson.model.Run;
 import hudson.model.TaskListener;
 import hudson.tasks.BuildStepDescriptor;
 import hudson.util.ListBoxModel;
-import io.github.resilience4j.core.IntervalFunction;
-import io.github.resilience4j.decorators.Decorators;
-import io.github.resilience4j.retry.Retry;
-import io.github.resilience4j.retry.RetryConfig;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.deployment.polling.DeploymentTracker;
 import io.jenkins.plugins.oci.deployment.polling.PollingConfig;
+import io.jenkins.plugins.oci.deployment.polling.PollingStrategy;
 import io.jenkins.plugins.oci.messages.Messages.DisplayNames;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.function.Supplier;
+import io.jenkins.plugins.oci.metrics.PluginMetrics;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import io.jenkins.plugins.oci.utils.ArgumentTemplate;
 import io.jenkins.plugins.oci.utils.CommonUtil;
 import lombok.Getter;
 import org.kohsuke.stapler.AncestorInPath;
@@ -60,9 +59,14 @@ public class DeploymentNotifier extends Notifier implements SimpleBuildStep {
     private String displayName;
     private String endpoint;
     private String argumentVal;
+    // Compiled on first use, the configuration does not change between runs.
+    private transient volatile ArgumentTemplate argumentTemplate;
     private PollingConfig pollingConfig;
     private ExecutionMode executionMode;
+    private String logGroupId;
+    private String logId;
     private static final long MIN_POLLING_INTERVAL_SECONDS = 5;
+    private static final long MIN_LOG_TAIL_INTERVAL_SECONDS = 10;
     private static final long MIN_TIMEOUT_SECONDS = 10;
 
     @DataBoundConstructor
@@ -112,6 +116,23 @@ public class DeploymentNotifier extends Notifier implements SimpleBuildStep {
             this.executionMode = executionMode;
         }
     }
+    @DataBoundSetter
+    public void setLogGroupId(String logGroupId) {
+        this.logGroupId = logGroupId;
+    }
+    @DataBoundSetter
+    public void setLogId(String logId) {
+        this.logId = logId;
+    }
+
+    ArgumentTemplate getArgumentTemplate() {
+        ArgumentTemplate template = argumentTemplate;
+        if (template == null || !template.getTemplate().equals(argumentVal)) {
+            template = ArgumentTemplate.compile(argumentVal);
+            argumentTemplate = template;
+        }
+        return template;
+    }
 
     @Override
     public void perform(Run<?, ?> run, FilePath workspace, Launcher launcher, TaskListener listener) throws InterruptedException, IOException {
@@ -119,53 +140,63 @@ public class DeploymentNotifier extends Notifier implements SimpleBuildStep {
             listener.getLogger().println("Execution Mode:" + executionMode);
             listener.getLogger().println("ExecutionMode max timeout:" + pollingConfig.getTimeoutSeconds());
             listener.getLogger().println("ExecutionMode polling interval:" + pollingConfig.getPollingIntervalSeconds());
+            listener.getLogger().println("ExecutionMode polling strategy:" + pollingConfig.getPollingStrategy());
             validateParameters();
             DeploymentArgumentCollection deploymentArgumentCollection = null;
             if (!Strings.isNullOrEmpty(argumentVal)) {
-                String substitutedStr = CommonUtil.substituteValues(argumentVal, run.getEnvironment(listener));
-                Map<String, String> substitutedMap = CommonUtil.parseJsonToMap(substitutedStr);
-                listener.getLogger().println("Argument after substitution: " + substitutedMap);
-                deploymentArgumentCollection = createDeploymentArgumentCollection(substitutedMap);
+                String substitutedStr = getArgumentTemplate().render(run.getEnvironment(listener));
+                deploymentArgumentCollection = DeploymentArgumentParser.parse(substitutedStr);
+                listener.getLogger().println("Argument after substitution: " + DeploymentArgumentParser.toString(deploymentArgumentCollection));
             }
-            final SimpleAuthenticationDetailsProvider authProvider = newAuthenticationDetailsProvider(credentialsId);
+            final AuthenticationDetailsProvider authProvider = newAuthenticationDetailsProvider(credentialsId);
             listener.getLogger().println("Created Auth provider");
-            DevopsClient client = newDeploymentClient(authProvider);
-            listener.getLogger().println("Created Deployment Client");
-            client.setEndpoint(endpoint);
-            CreateDeploymentResponse createDeploymentResponse = createDeployment(deploymentArgumentCollection, client);
-            Deployment deployment = createDeploymentResponse.getDeployment();
-            listener.getLogger().println("Response received from createDeployment API is: " + deployment);
-            if (deployment.getLifecycleState().equals(LifecycleState.Accepted) || deployment.getLifecycleState().equals(LifecycleState.InProgress)) {
-                deployment = waitForDeploymentCompletion(deployment.getId(), client, executionMode, pollingConfig);
-            }
-            listener.getLogger().println("The deployment is completed:" + deployment);
-            if (executionMode.equals(ExecutionMode.SYNC)) {
-                if (deployment.getLifecycleState().equals(LifecycleState.Succeeded)) {
-                    run.setResult(Result.SUCCESS);
-                } else {
-                    run.setResult(Result.FAILURE);
-                }
-            } else {
-                /* It first waits for sometime (as per polling config) for deployment to go from Accepted to inProgress
-                 or Succeeded state. But while testing we have seen cases that even after waiting for some time the Deployment
-                 was still in ACCEPTED state and the jenkins job was marked as Failure. So I have added another condition
-                 that if Deployment is in Async mode and even after waiting its either in InProgress, Succeeded
-                 or Accepted state, mark it as success.*/
-                if (deployment.getLifecycleState().equals(LifecycleState.InProgress) ||
-                        deployment.getLifecycleState().equals(LifecycleState.Succeeded) ||
-                        deployment.getLifecycleState().equals(LifecycleState.Accepted)) {
-                    run.setResult(Result.SUCCESS);
-                } else {
-                    run.setResult(Result.FAILURE);
+            Deployment deployment;
+            try (CloudClientPool.Lease<DevopsClient> lease = leaseDeploymentClient(authProvider)) {
+                DevopsClient client = lease.get();
+                listener.getLogger().println("Created Deployment Client");
+                CreateDeploymentResponse createDeploymentResponse = createDeployment(deploymentArgumentCollection, client);
+                deployment = createDeploymentResponse.getDeployment();
+                listener.getLogger().println("Response received from createDeployment API is: " + deployment);
+                if (deployment.getLifecycleState().equals(LifecycleState.Accepted) || deployment.getLifecycleState().equals(LifecycleState.InProgress)) {
+                    try (DeploymentLogTailer logTailer = newLogTailer(authProvider, deployment, listener)) {
+                        deployment = waitForDeploymentCompletion(deployment, lease, executionMode, pollingConfig, logTailer);
+                    }
                 }
             }
+            listener.getLogger().println("The deployment is completed:" + deployment);
+            run.setResult(isSuccessful(deployment, executionMode) ? Result.SUCCESS : Result.FAILURE);
+        } catch (InterruptedException ex) {
+            // The build was aborted, let Jenkins record it as such. Waiting already stopped polling the deployment.
+            listener.getLogger().println("Deployment monitoring interrupted, the deployment itself is not cancelled");
+            throw ex;
         } catch (Exception ex) {
+            if (Thread.interrupted()) {
+                // An SDK call interrupted while blocked reports it wrapped in an exception of its own.
+                listener.getLogger().println("Deployment interrupted: " + ex.getMessage());
+                InterruptedException interrupted = new InterruptedException("Deployment interrupted");
+                interrupted.initCause(ex);
+                throw interrupted;
+            }
             listener.getLogger().println(ex.getMessage());
             run.setResult(Result.FAILURE);
         }
     }
 
-    SimpleAuthenticationDetailsProvider newAuthenticationDetailsProvider(final String credentialsId) throws Exception {
+    static boolean isSuccessful(Deployment deployment, ExecutionMode executionMode) {
+        if (executionMode.equals(ExecutionMode.SYNC)) {
+            return deployment.getLifecycleState().equals(LifecycleState.Succeeded);
+        }
+        /* It first waits for sometime (as per polling config) for deployment to go from Accepted to inProgress
+         or Succeeded state. But while testing we have seen cases that even after waiting for some time the Deployment
+         was still in ACCEPTED state and the jenkins job was marked as Failure. So I have added another condition
+         that if Deployment is in Async mode and even after waiting its either in InProgress, Succeeded
+         or Accepted state, mark it as success.*/
+        return deployment.getLifecycleState().equals(LifecycleState.InProgress) ||
+                deployment.getLifecycleState().equals(LifecycleState.Succeeded) ||
+                deployment.getLifecycleState().equals(LifecycleState.Accepted);
+    }
+
+    AuthenticationDetailsProvider newAuthenticationDetailsProvider(final String credentialsId) throws Exception {
         return CommonUtil.getAuthProvider(credentialsId);
     }
 
@@ -185,6 +216,13 @@ public class DeploymentNotifier extends Notifier implements SimpleBuildStep {
         if (executionMode == null) {
             throw new IllegalArgumentException("Execution Mode must be specified.");
         }
+        if (Strings.isNullOrEmpty(logGroupId) != Strings.isNullOrEmpty(logId)) {
+            throw new IllegalArgumentException("Log Group OCID and Log OCID must be specified together.");
+        }
+        validatePollingConfig(pollingConfig);
+    }
+
+    static void validatePollingConfig(PollingConfig pollingConfig) {
         if (!pollingConfig.getIsValid()) {
             throw new IllegalArgumentException("Timeout and polling interval must be integers");
         }
@@ -197,32 +235,70 @@ public class DeploymentNotifier extends Notifier implements SimpleBuildStep {
         if (pollingConfig.getPollingIntervalSeconds() > pollingConfig.getTimeoutSeconds()) {
             throw new IllegalArgumentException("Timeout must be greater than polling interval");
         }
+        if (pollingConfig.getPollingStrategy() == PollingStrategy.EXPONENTIAL) {
+            if (pollingConfig.getInitialPollingIntervalSeconds() > pollingConfig.getPollingIntervalSeconds()) {
+                throw new IllegalArgumentException("Initial polling interval must not be greater than polling interval");
+            }
+            if (pollingConfig.getBackoffMultiplier() < 1) {
+                throw new IllegalArgumentException("Backoff multiplier must be at least 1");
+            }
+        }
     }
 
     DevopsClient newDeploymentClient(AuthenticationDetailsProvider authProvider) {
         return new DevopsClient(authProvider);
     }
 
-    Deployment waitForDeploymentCompletion(String deploymentId, DevopsClient client, ExecutionMode executionMode, PollingConfig pollingConfig) {
-        GetDeploymentRequest getDeploymentRequest = GetDeploymentRequest.builder()
-                .deploymentId(deploymentId)
-                .build();
-        long interval = pollingConfig.getPollingIntervalSeconds();
-        long timeout = pollingConfig.getTimeoutSeconds();
-        RetryConfig config = newRetryConfig(executionMode, timeout, interval);
-        Retry retryCustom = Retry.of("checkDeploymentState", config);
-        Supplier<Deployment> supplier = () -> client.getDeployment(getDeploymentRequest).getDeployment();
-        Supplier<Deployment> decoratedSupplier = Decorators.ofSupplier(supplier).withRetry(retryCustom).decorate();
-        return decoratedSupplier.get();
+    // Clients are shared with concurrent builds and kept between builds, see CloudClientPools.
+    CloudClientPool.Lease<DevopsClient> leaseDeploymentClient(AuthenticationDetailsProvider authProvider) throws Exception {
+        return CloudClientPools.DEVOPS_CLIENTS.acquire(CloudClientPools.clientKey(credentialsId, authProvider, endpoint), () -> {
+            DevopsClient client = newDeploymentClient(authProvider);
+            client.setEndpoint(endpoint);
+            return client;
+        });
+    }
+
+    DeploymentLogTailer newLogTailer(AuthenticationDetailsProvider authProvider, Deployment deployment, TaskListener listener) {
+        if (Strings.isNullOrEmpty(logId)) {
+            return null;
+        }
+        DeploymentLogTailer logTailer = DeploymentLogTailer.open(credentialsId, authProvider, deployment, logGroupId, logId, listener);
+        if (logTailer != null) {
+            listener.getLogger().println("Streaming deployment logs from log " + logId);
+        }
+        return logTailer;
     }
 
-    @VisibleForTesting
-    RetryConfig newRetryConfig(ExecutionMode executionMode, long timeout, long interval) {
-        return RetryConfig.<Deployment>custom().maxAttempts(Math.toIntExact(timeout/interval))
-                .retryOnResult((deployment) -> CommonUtil.retryableLifeCycleState(deployment, executionMode))
-                .retryOnException(ex -> CommonUtil.retryableException(ex))
-                .intervalFunction(IntervalFunction.of(interval * 1000))
-                .build();
+    /**
+     * @param logTailer if not null, new log entries are printed while waiting, at most every
+     *                  {@link #MIN_LOG_TAIL_INTERVAL_SECONDS} seconds so that log searches do not follow fast polling
+     */
+    Deployment waitForDeploymentCompletion(Deployment deployment, CloudClientPool.Lease<DevopsClient> client, ExecutionMode executionMode,
+                                           PollingConfig pollingConfig, DeploymentLogTailer logTailer) throws Exception {
+        CompletableFuture<Deployment> completion = DeploymentTracker.get().track(credentialsId, deployment, client, executionMode, pollingConfig);
+        try {
+            if (logTailer == null) {
+                return completion.get();
+            }
+            long tailIntervalSeconds = Math.max(pollingConfig.getPollingIntervalSeconds(), MIN_LOG_TAIL_INTERVAL_SECONDS);
+            while (true) {
+                try {
+                    Deployment completed = completion.get(tailIntervalSeconds, TimeUnit.SECONDS);
+                    logTailer.tail();
+                    return completed;
+                } catch (TimeoutException ex) {
+                    logTailer.tail();
+                }
+            }
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw ex;
+        } finally {
+            // Stops polling if the build is aborted while waiting.
+            completion.cancel(true);
+        }
     }
 
     CreateDeploymentResponse createDeployment(DeploymentArgumentCollection deploymentArgumentCollection, DevopsClient client) {
@@ -236,7 +312,9 @@ public class DeploymentNotifier extends Notifier implements SimpleBuildStep {
             CreateDeploymentRequest createDeploymentRequest = CreateDeploymentRequest.builder()
                     .createDeploymentDetails(createPipelineDeploymentDetails)
                     .build();
-            createDeploymentResponse = client.createDeployment(createDeploymentRequest);
+            try (Timer.Context ignored = PluginMetrics.time(PluginMetrics.CREATE_DEPLOYMENT)) {
+                createDeploymentResponse = client.createDeployment(createDeploymentRequest);
+            }
         } catch (BmcException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -245,16 +323,6 @@ public class DeploymentNotifier extends Notifier implements SimpleBuildStep {
         return createDeploymentResponse;
     }
 
-    DeploymentArgumentCollection createDeploymentArgumentCollection(Map<String, String> map) {
-        List<DeploymentArgument> argList = new ArrayList<>();
-        for (Map.Entry<String, String> entry: map.entrySet())
-            argList.add(DeploymentArgument.builder()
-                    .name(entry.getKey())
-                    .value(entry.getValue())
-                    .build());
-        return DeploymentArgumentCollection.builder().items(argList).build();
-    }
-
     @Symbol("OCIDeployment")
     @Extension
     public static final class DescriptorImpl extends BuildStepDescriptor<Publisher> {
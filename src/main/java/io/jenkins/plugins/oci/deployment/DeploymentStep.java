@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableSet;
+import hudson.EnvVars;
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.util.ListBoxModel;
+import io.jenkins.plugins.oci.deployment.polling.PollingConfig;
+import io.jenkins.plugins.oci.messages.Messages.DisplayNames;
+import io.jenkins.plugins.oci.utils.CommonUtil;
+import lombok.Getter;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import java.util.Set;
+
+/**
+ * Pipeline step that triggers a deployment and, in SYNC mode, waits for it without holding a thread: the
+ * {@link DeploymentStepExecution} saves the deployment OCID and monitoring starts again after a controller restart.
+ * The step returns the final state of the deployment.
+ */
+@Getter
+public class DeploymentStep extends Step {
+    private final String credentialsId;
+    private final String pipelineId;
+    private final String displayName;
+    private final String endpoint;
+    private String argumentVal;
+    private PollingConfig pollingConfig = new PollingConfig();
+    private ExecutionMode executionMode = ExecutionMode.SYNC;
+
+    @DataBoundConstructor
+    public DeploymentStep(String credentialsId, String pipelineId, String displayName, String endpoint) {
+        this.credentialsId = credentialsId;
+        this.pipelineId = pipelineId;
+        this.displayName = displayName;
+        this.endpoint = endpoint;
+    }
+
+    @DataBoundSetter
+    public void setArgumentVal(String argumentVal) {
+        this.argumentVal = argumentVal;
+    }
+
+    @DataBoundSetter
+    public void setPollingConfig(PollingConfig pollingConfig) {
+        this.pollingConfig = pollingConfig != null ? pollingConfig : new PollingConfig();
+    }
+
+    @DataBoundSetter
+    public void setExecutionMode(ExecutionMode executionMode) {
+        if (executionMode != null) {
+            this.executionMode = executionMode;
+        }
+    }
+
+    void validateParameters() {
+        if (Strings.isNullOrEmpty(credentialsId)) {
+            throw new IllegalArgumentException("CredentialId must be specified.");
+        }
+        if (Strings.isNullOrEmpty(pipelineId)) {
+            throw new IllegalArgumentException("PipelineId must be specified.");
+        }
+        if (Strings.isNullOrEmpty(displayName)) {
+            throw new IllegalArgumentException("Display Name must be specified.");
+        }
+        if (Strings.isNullOrEmpty(endpoint)) {
+            throw new IllegalArgumentException("Endpoint must be specified.");
+        }
+        DeploymentNotifier.validatePollingConfig(pollingConfig);
+    }
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        return new DeploymentStepExecution(this, context);
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends StepDescriptor {
+        public ListBoxModel doFillCredentialsIdItems(@AncestorInPath Item context, @QueryParameter String credentialsId) {
+            return CommonUtil.getCredentialsListBoxModel(context, credentialsId);
+        }
+
+        // No FilePath or Launcher, the step does not need a node.
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return ImmutableSet.of(Run.class, TaskListener.class, EnvVars.class);
+        }
+
+        @Override
+        public String getFunctionName() {
+            return "OCIDeploy";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return DisplayNames.DEPLOYMENT_STEP_DISPLAY_NAME;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.google.common.base.Strings;
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import com.oracle.bmc.devops.DevopsClient;
+import com.oracle.bmc.devops.model.CreateDeployPipelineDeploymentDetails;
+import com.oracle.bmc.devops.model.Deployment;
+import com.oracle.bmc.devops.model.Deployment.LifecycleState;
+import com.oracle.bmc.devops.model.DeploymentArgumentCollection;
+import com.oracle.bmc.devops.requests.CreateDeploymentRequest;
+import com.oracle.bmc.devops.requests.GetDeploymentRequest;
+import hudson.AbortException;
+import hudson.EnvVars;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.oci.client.CloudClient;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.client.SDKCloudClientFactory;
+import io.jenkins.plugins.oci.deployment.polling.DeploymentTracker;
+import io.jenkins.plugins.oci.deployment.polling.PollingConfig;
+import io.jenkins.plugins.oci.utils.ArgumentTemplate;
+import io.jenkins.plugins.oci.utils.CommonUtil;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs a {@link DeploymentStep}. The OCI calls run on the client factory's executor and the deployment is then
+ * polled by the {@link DeploymentTracker}, so no thread waits for the deployment. {@link #start()} and
+ * {@link #onResume()} run on the CPS VM thread, which must never wait on the network, so their calls are submitted
+ * through a deferring client: when the executor is saturated they wait for a thread instead of running in the caller. The deployment OCID and the polling
+ * deadline are saved with the pipeline once the deployment is created; after a controller restart
+ * {@link #onResume()} fetches the deployment again and keeps polling it until the original deadline.
+ */
+class DeploymentStepExecution extends StepExecution {
+    private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = Logger.getLogger(DeploymentStepExecution.class.getName());
+
+    // Only used by start(), which runs before the execution is ever saved.
+    private final transient DeploymentStep step;
+    private final String credentialsId;
+    private final String endpoint;
+    private final ExecutionMode executionMode;
+    private final PollingConfig pollingConfig;
+    private String deploymentId;
+    private long deadlineMillis;
+
+    // Guarded by this.
+    private transient CloudClientPool.Lease<DevopsClient> lease;
+    private transient CompletableFuture<Deployment> tracked;
+    private transient boolean stopped;
+
+    DeploymentStepExecution(DeploymentStep step, StepContext context) {
+        super(context);
+        this.step = step;
+        this.credentialsId = step.getCredentialsId();
+        this.endpoint = step.getEndpoint();
+        this.executionMode = step.getExecutionMode();
+        this.pollingConfig = step.getPollingConfig();
+    }
+
+    @Override
+    public boolean start() throws Exception {
+        TaskListener listener = getContext().get(TaskListener.class);
+        listener.getLogger().println("Execution Mode:" + executionMode);
+        listener.getLogger().println("ExecutionMode max timeout:" + pollingConfig.getTimeoutSeconds());
+        listener.getLogger().println("ExecutionMode polling interval:" + pollingConfig.getPollingIntervalSeconds());
+        listener.getLogger().println("ExecutionMode polling strategy:" + pollingConfig.getPollingStrategy());
+        step.validateParameters();
+        DeploymentArgumentCollection arguments = null;
+        if (!Strings.isNullOrEmpty(step.getArgumentVal())) {
+            String substitutedStr = ArgumentTemplate.compile(step.getArgumentVal()).render(getContext().get(EnvVars.class));
+            arguments = DeploymentArgumentParser.parse(substitutedStr);
+            listener.getLogger().println("Argument after substitution: " + DeploymentArgumentParser.toString(arguments));
+        }
+        CreateDeploymentRequest request = CreateDeploymentRequest.builder()
+                .createDeploymentDetails(CreateDeployPipelineDeploymentDetails.builder()
+                        .deploymentArguments(arguments)
+                        .displayName(step.getDisplayName())
+                        .deployPipelineId(step.getPipelineId())
+                        .build())
+                .build();
+        try (CloudClient cloudClient = SDKCloudClientFactory.get().createDeferringClient(credentialsId, 1)) {
+            cloudClient.createDeployment(endpoint, request).whenComplete((response, error) -> {
+                if (error != null) {
+                    fail(error);
+                    return;
+                }
+                created(response.getDeployment(), listener);
+            });
+        }
+        return false;
+    }
+
+    private void created(Deployment deployment, TaskListener listener) {
+        listener.getLogger().println("Response received from createDeployment API is: " + deployment);
+        synchronized (this) {
+            deploymentId = deployment.getId();
+            deadlineMillis = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(pollingConfig.getTimeoutSeconds());
+        }
+        // Saved before waiting so that a restart from now on resumes monitoring this deployment.
+        getContext().saveState();
+        monitor(deployment, listener);
+    }
+
+    @Override
+    public void onResume() {
+        TaskListener listener;
+        try {
+            listener = getContext().get(TaskListener.class);
+        } catch (IOException | InterruptedException e) {
+            fail(e);
+            return;
+        }
+        if (deploymentId == null) {
+            fail(new AbortException("Jenkins restarted before the deployment was created. Check the deployments of "
+                    + "the pipeline before running the build again."));
+            return;
+        }
+        listener.getLogger().println("Resuming monitoring of deployment " + deploymentId);
+        try (CloudClient cloudClient = SDKCloudClientFactory.get().createDeferringClient(credentialsId, 1)) {
+            cloudClient.getDeployment(endpoint, GetDeploymentRequest.builder().deploymentId(deploymentId).build())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            fail(error);
+                            return;
+                        }
+                        monitor(response.getDeployment(), listener);
+                    });
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    private void monitor(Deployment deployment, TaskListener listener) {
+        if (!deployment.getLifecycleState().equals(LifecycleState.Accepted) && !deployment.getLifecycleState().equals(LifecycleState.InProgress)) {
+            finish(deployment, listener);
+            return;
+        }
+        CompletableFuture<Deployment> completion;
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            try {
+                AuthenticationDetailsProvider authProvider = CommonUtil.getAuthProvider(credentialsId);
+                // The tracker polls with the client until the deployment completes, so keep it leased until then.
+                lease = CloudClientPools.DEVOPS_CLIENTS.acquire(CloudClientPools.clientKey(credentialsId, authProvider, endpoint), () -> {
+                    DevopsClient client = new DevopsClient(authProvider);
+                    client.setEndpoint(endpoint);
+                    return client;
+                });
+            } catch (Exception e) {
+                fail(e);
+                return;
+            }
+            long remainingSeconds = Math.max(0, TimeUnit.MILLISECONDS.toSeconds(deadlineMillis - System.currentTimeMillis()));
+            completion = DeploymentTracker.get().track(credentialsId, deployment, lease, executionMode,
+                    pollingConfig.withTimeoutSeconds(remainingSeconds));
+            tracked = completion;
+        }
+        completion.whenComplete((completed, error) -> {
+            release();
+            if (error instanceof CancellationException) {
+                return;
+            }
+            if (error != null) {
+                fail(error);
+                return;
+            }
+            finish(completed, listener);
+        });
+    }
+
+    private void finish(Deployment deployment, TaskListener listener) {
+        listener.getLogger().println("The deployment is completed:" + deployment);
+        if (DeploymentNotifier.isSuccessful(deployment, executionMode)) {
+            getContext().onSuccess(toResult(deployment));
+        } else {
+            getContext().onFailure(new AbortException("Deployment " + deployment.getId() + " is " + deployment.getLifecycleState()));
+        }
+    }
+
+    // SDK models are not serializable, the pipeline gets the main fields of the deployment as strings.
+    private static Map<String, String> toResult(Deployment deployment) {
+        Map<String, String> result = new HashMap<>();
+        result.put("id", deployment.getId());
+        result.put("displayName", deployment.getDisplayName());
+        result.put("deployPipelineId", deployment.getDeployPipelineId());
+        result.put("lifecycleState", String.valueOf(deployment.getLifecycleState()));
+        result.put("lifecycleDetails", deployment.getLifecycleDetails());
+        result.put("timeCreated", toString(deployment.getTimeCreated()));
+        result.put("timeUpdated", toString(deployment.getTimeUpdated()));
+        return result;
+    }
+
+    private static String toString(Date date) {
+        return date == null ? null : date.toInstant().toString();
+    }
+
+    private void fail(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        LOGGER.log(Level.FINE, "Deployment step failed", cause);
+        getContext().onFailure(cause);
+    }
+
+    private synchronized void release() {
+        if (tracked != null) {
+            tracked.cancel(true);
+            tracked = null;
+        }
+        if (lease != null) {
+            lease.close();
+            lease = null;
+        }
+    }
+
+    @Override
+    public void stop(Throwable cause) throws Exception {
+        synchronized (this) {
+            stopped = true;
+        }
+        release();
+        getContext().onFailure(cause);
+    }
+
+    @Override
+    public String getStatus() {
+        String id = deploymentId;
+        return id == null ? "creating the deployment" : "waiting for deployment " + id;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import lombok.Data;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+/**
+ * A pipeline to trigger from {@link MultiDeploymentNotifier}, with the DevOps endpoint of its region.
+ */
+@Data
+public class DeploymentTarget extends AbstractDescribableImpl<DeploymentTarget> {
+    private String pipelineId;
+    private String endpoint;
+
+    @DataBoundConstructor
+    public DeploymentTarget(String pipelineId, String endpoint) {
+        this.pipelineId = pipelineId;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public String toString() {
+        return pipelineId + " @ " + endpoint;
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<DeploymentTarget> {
+        @Override
+        public String getDisplayName() {
+            return "Deployment Target";
+        }
+    }
+}
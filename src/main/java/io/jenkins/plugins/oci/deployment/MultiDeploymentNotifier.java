@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.google.common.base.Strings;
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import com.oracle.bmc.devops.DevopsClient;
+import com.oracle.bmc.devops.model.CreateDeployPipelineDeploymentDetails;
+import com.oracle.bmc.devops.model.Deployment;
+import com.oracle.bmc.devops.model.Deployment.LifecycleState;
+import com.oracle.bmc.devops.model.DeploymentArgumentCollection;
+import com.oracle.bmc.devops.requests.CreateDeploymentRequest;
+import com.oracle.bmc.devops.responses.CreateDeploymentResponse;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.Launcher;
+import hudson.model.AbstractProject;
+import hudson.model.Item;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.tasks.BuildStepDescriptor;
+import hudson.tasks.Notifier;
+import hudson.tasks.Publisher;
+import hudson.util.ListBoxModel;
+import io.jenkins.plugins.oci.client.CloudClient;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.client.SDKCloudClientFactory;
+import io.jenkins.plugins.oci.deployment.polling.DeploymentTracker;
+import io.jenkins.plugins.oci.deployment.polling.PollingConfig;
+import io.jenkins.plugins.oci.messages.Messages.DisplayNames;
+import io.jenkins.plugins.oci.utils.ArgumentTemplate;
+import io.jenkins.plugins.oci.utils.CommonUtil;
+import jenkins.tasks.SimpleBuildStep;
+import lombok.Getter;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.AncestorInPath;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Triggers the same deployment on several pipelines, typically one per region or environment. The deployments are
+ * created concurrently, up to {@link #getMaxConcurrentDeployments()} at a time, and are then tracked together by
+ * the {@link DeploymentTracker}. The build fails if any of them fails; a summary lists the outcome of each target.
+ */
+@Getter
+public class MultiDeploymentNotifier extends Notifier implements SimpleBuildStep {
+    private static final int DEFAULT_MAX_CONCURRENT_DEPLOYMENTS = 4;
+    private static final int MAX_CONCURRENT_DEPLOYMENTS_LIMIT = 32;
+
+    private String credentialsId;
+    private List<DeploymentTarget> targets;
+    private String displayName;
+    private String argumentVal;
+    // Compiled on first use, the configuration does not change between runs.
+    private transient volatile ArgumentTemplate argumentTemplate;
+    private PollingConfig pollingConfig;
+    private ExecutionMode executionMode;
+    // 0 means DEFAULT_MAX_CONCURRENT_DEPLOYMENTS.
+    private int maxConcurrentDeployments;
+
+    @DataBoundConstructor
+    public MultiDeploymentNotifier(String credentialsId,
+            List<DeploymentTarget> targets,
+            String displayName,
+            String argumentVal,
+            PollingConfig pollingConfig,
+            ExecutionMode executionMode) {
+        this.credentialsId = credentialsId;
+        this.targets = targets;
+        this.displayName = displayName;
+        this.argumentVal = argumentVal;
+        if (pollingConfig != null) {
+            this.pollingConfig = pollingConfig;
+        } else {
+            this.pollingConfig = new PollingConfig();
+        }
+        this.executionMode = executionMode;
+    }
+
+    @DataBoundSetter
+    public void setMaxConcurrentDeployments(int maxConcurrentDeployments) {
+        this.maxConcurrentDeployments = maxConcurrentDeployments;
+    }
+
+    public int getMaxConcurrentDeployments() {
+        return maxConcurrentDeployments > 0 ? maxConcurrentDeployments : DEFAULT_MAX_CONCURRENT_DEPLOYMENTS;
+    }
+
+    ArgumentTemplate getArgumentTemplate() {
+        ArgumentTemplate template = argumentTemplate;
+        if (template == null || !template.getTemplate().equals(argumentVal)) {
+            template = ArgumentTemplate.compile(argumentVal);
+            argumentTemplate = template;
+        }
+        return template;
+    }
+
+    @Override
+    public void perform(Run<?, ?> run, FilePath workspace, Launcher launcher, TaskListener listener) throws InterruptedException, IOException {
+        try {
+            listener.getLogger().println("Execution Mode:" + executionMode);
+            listener.getLogger().println("ExecutionMode max timeout:" + pollingConfig.getTimeoutSeconds());
+            listener.getLogger().println("ExecutionMode polling interval:" + pollingConfig.getPollingIntervalSeconds());
+            listener.getLogger().println("ExecutionMode polling strategy:" + pollingConfig.getPollingStrategy());
+            validateParameters();
+            DeploymentArgumentCollection deploymentArgumentCollection = null;
+            if (!Strings.isNullOrEmpty(argumentVal)) {
+                String substitutedStr = getArgumentTemplate().render(run.getEnvironment(listener));
+                deploymentArgumentCollection = DeploymentArgumentParser.parse(substitutedStr);
+                listener.getLogger().println("Argument after substitution: " + DeploymentArgumentParser.toString(deploymentArgumentCollection));
+            }
+            AuthenticationDetailsProvider authProvider = newAuthenticationDetailsProvider(credentialsId);
+            listener.getLogger().println(String.format("Triggering %d deployments, %d at a time", targets.size(),
+                    Math.min(getMaxConcurrentDeployments(), targets.size())));
+            List<TargetOutcome> outcomes = deploy(authProvider, deploymentArgumentCollection, listener);
+
+            listener.getLogger().println("Deployment Summary:");
+            long failures = 0;
+            for (TargetOutcome outcome : outcomes) {
+                listener.getLogger().println("  " + outcome);
+                if (!outcome.isSuccess()) {
+                    failures++;
+                }
+            }
+            if (failures > 0) {
+                listener.getLogger().println(String.format("%d of %d deployments did not succeed", failures, outcomes.size()));
+                run.setResult(Result.FAILURE);
+                return;
+            }
+            run.setResult(Result.SUCCESS);
+        } catch (InterruptedException ex) {
+            // The build was aborted, let Jenkins record it as such. deploy() cancelled whatever was still outstanding.
+            listener.getLogger().println("Deployments interrupted, the deployments already created are not cancelled");
+            throw ex;
+        } catch (Exception ex) {
+            if (Thread.interrupted()) {
+                // An SDK call interrupted while blocked reports it wrapped in an exception of its own.
+                listener.getLogger().println("Deployments interrupted: " + ex.getMessage());
+                InterruptedException interrupted = new InterruptedException("Deployments interrupted");
+                interrupted.initCause(ex);
+                throw interrupted;
+            }
+            listener.getLogger().println(ex.getMessage());
+            run.setResult(Result.FAILURE);
+        }
+    }
+
+    AuthenticationDetailsProvider newAuthenticationDetailsProvider(String credentialsId) throws Exception {
+        return CommonUtil.getAuthProvider(credentialsId);
+    }
+
+    CloudClient newCloudClient() {
+        return SDKCloudClientFactory.get().createClient(credentialsId, getMaxConcurrentDeployments());
+    }
+
+    void validateParameters() {
+        if (Strings.isNullOrEmpty(credentialsId)) {
+            throw new IllegalArgumentException("CredentialId must be specified.");
+        }
+        if (targets == null || targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one deployment target must be specified.");
+        }
+        for (DeploymentTarget target : targets) {
+            if (Strings.isNullOrEmpty(target.getPipelineId())) {
+                throw new IllegalArgumentException("PipelineId must be specified for every target.");
+            }
+            if (Strings.isNullOrEmpty(target.getEndpoint())) {
+                throw new IllegalArgumentException("Endpoint must be specified for every target.");
+            }
+        }
+        if (Strings.isNullOrEmpty(displayName)) {
+            throw new IllegalArgumentException("Display Name must be specified.");
+        }
+        if (executionMode == null) {
+            throw new IllegalArgumentException("Execution Mode must be specified.");
+        }
+        if (maxConcurrentDeployments < 0 || maxConcurrentDeployments > MAX_CONCURRENT_DEPLOYMENTS_LIMIT) {
+            throw new IllegalArgumentException("Max concurrent deployments must be between 1 and " + MAX_CONCURRENT_DEPLOYMENTS_LIMIT
+                    + ", or 0 for the default of " + DEFAULT_MAX_CONCURRENT_DEPLOYMENTS);
+        }
+        DeploymentNotifier.validatePollingConfig(pollingConfig);
+    }
+
+    /**
+     * Creates the deployments with bounded parallelism and starts tracking each one as soon as it is created, then
+     * waits for all of them. Returns one outcome per target, in the order of {@link #targets}. When interrupted, the
+     * creations that have not started yet are skipped and tracking stops for every target.
+     */
+    List<TargetOutcome> deploy(AuthenticationDetailsProvider authProvider, DeploymentArgumentCollection arguments,
+                               TaskListener listener) throws Exception {
+        List<TargetOutcome> outcomes = new ArrayList<>();
+        try (CloudClient cloudClient = newCloudClient()) {
+            for (DeploymentTarget target : targets) {
+                TargetOutcome outcome = new TargetOutcome(target);
+                outcomes.add(outcome);
+                outcome.creation = cloudClient.createDeployment(target.getEndpoint(), CreateDeploymentRequest.builder()
+                        .createDeploymentDetails(CreateDeployPipelineDeploymentDetails.builder()
+                                .deploymentArguments(arguments)
+                                .displayName(displayName)
+                                .deployPipelineId(target.getPipelineId())
+                                .build())
+                        .build());
+                outcome.completion = outcome.creation
+                        .thenCompose(response -> track(authProvider, outcome, response.getDeployment(), listener));
+            }
+            for (TargetOutcome outcome : outcomes) {
+                try {
+                    outcome.deployment = outcome.completion.get();
+                } catch (ExecutionException ex) {
+                    outcome.error = ex.getCause();
+                }
+            }
+        } finally {
+            // Skips the creations not started yet and stops polling if the build is aborted while waiting.
+            outcomes.forEach(TargetOutcome::release);
+        }
+        return outcomes;
+    }
+
+    private CompletableFuture<Deployment> track(AuthenticationDetailsProvider authProvider, TargetOutcome outcome,
+                                                Deployment deployment, TaskListener listener) {
+        DeploymentTarget target = outcome.target;
+        listener.getLogger().println(String.format("Created deployment %s for %s", deployment.getId(), target));
+        if (!deployment.getLifecycleState().equals(LifecycleState.Accepted) && !deployment.getLifecycleState().equals(LifecycleState.InProgress)) {
+            return CompletableFuture.completedFuture(deployment);
+        }
+        // The tracker polls with the client until the deployment completes, so keep it leased until then.
+        CloudClientPool.Lease<DevopsClient> lease;
+        try {
+            lease = CloudClientPools.DEVOPS_CLIENTS.acquire(
+                    CloudClientPools.clientKey(credentialsId, authProvider, target.getEndpoint()), () -> {
+                        DevopsClient client = new DevopsClient(authProvider);
+                        client.setEndpoint(target.getEndpoint());
+                        return client;
+                    });
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        CompletableFuture<Deployment> completion =
+                DeploymentTracker.get().track(credentialsId, deployment, lease, executionMode, pollingConfig);
+        outcome.hold(lease, completion);
+        return completion;
+    }
+
+    final class TargetOutcome {
+        private final DeploymentTarget target;
+        private Deployment deployment;
+        private Throwable error;
+        private CompletableFuture<CreateDeploymentResponse> creation;
+        private CompletableFuture<Deployment> completion;
+        // Guarded by this. Once released, a deployment created afterwards returns its lease and stops tracking.
+        private CloudClientPool.Lease<DevopsClient> lease;
+        private CompletableFuture<Deployment> tracked;
+        private boolean released;
+
+        private TargetOutcome(DeploymentTarget target) {
+            this.target = target;
+        }
+
+        private synchronized void hold(CloudClientPool.Lease<DevopsClient> lease, CompletableFuture<Deployment> tracked) {
+            if (released) {
+                tracked.cancel(true);
+                lease.close();
+                return;
+            }
+            this.lease = lease;
+            this.tracked = tracked;
+        }
+
+        private synchronized void release() {
+            released = true;
+            if (creation != null) {
+                creation.cancel(true);
+            }
+            if (completion != null) {
+                completion.cancel(true);
+            }
+            if (tracked != null) {
+                tracked.cancel(true);
+            }
+            if (lease != null) {
+                lease.close();
+            }
+        }
+
+        boolean isSuccess() {
+            return deployment != null && DeploymentNotifier.isSuccessful(deployment, executionMode);
+        }
+
+        @Override
+        public String toString() {
+            String status = isSuccess() ? "SUCCEEDED" : "FAILED";
+            if (deployment != null) {
+                return String.format("%s %s: deployment %s is %s", status, target, deployment.getId(), deployment.getLifecycleState());
+            }
+            return String.format("%s %s: %s", status, target, error == null ? "not created" : error.getMessage());
+        }
+    }
+
+    @Symbol("OCIMultiDeployment")
+    @Extension
+    public static final class DescriptorImpl extends BuildStepDescriptor<Publisher> {
+        public ListBoxModel doFillCredentialsIdItems(@AncestorInPath Item context, @QueryParameter String credentialsId) {
+            return CommonUtil.getCredentialsListBoxModel(context, credentialsId);
+        }
+
+        @Override
+        public boolean isApplicable(Class<? extends AbstractProject> aClass) {
+            return true;
+        }
+
+        @Override
+        public String getDisplayName() {
+            return DisplayNames.MULTI_DEPLOYMENT_DISPLAY_NAME;
+        }
+    }
+}
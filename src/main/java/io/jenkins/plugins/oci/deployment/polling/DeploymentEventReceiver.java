@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment.polling;
+
+import hudson.Extension;
+import hudson.ProxyConfiguration;
+import hudson.model.UnprotectedRootAction;
+import hudson.security.csrf.CrumbExclusion;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.lang.StringUtils;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.interceptor.RequirePOST;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTPS subscription endpoint for an OCI Notifications topic that receives DevOps deployment events, at
+ * {@code JENKINS_URL/oci-devops-events/<token>/}. The endpoint only exists once enabled in
+ * {@link DeploymentEventsConfiguration}, and requests without the secret token of the configuration get a 404.
+ * Every deployment OCID mentioned in a message is handed to {@link DeploymentTracker#deploymentUpdated}, which polls
+ * that deployment soon if a build is waiting for it with {@link PollingStrategy#EVENTS}. Messages only trigger a poll,
+ * their content is never trusted.
+ */
+@Extension
+public class DeploymentEventReceiver implements UnprotectedRootAction {
+    private static final Logger LOGGER = Logger.getLogger(DeploymentEventReceiver.class.getName());
+    static final String URL_NAME = "oci-devops-events";
+    private static final String CONFIRMATION_URL_HEADER = "X-OCI-NS-ConfirmationURL";
+    // Only the Notifications service of a region hands out confirmation URLs.
+    private static final Pattern CONFIRMATION_HOST_PATTERN =
+            Pattern.compile("notification\\.[a-z0-9-]+\\.(oci\\.)?oraclecloud\\.com");
+    private static final String CONFIRMATION_PATH_PREFIX = "/20181201/subscriptions/";
+    private static final Pattern DEPLOYMENT_OCID_PATTERN = Pattern.compile("ocid1\\.devopsdeployment\\.[a-zA-Z0-9._-]+");
+    private static final int MAX_MESSAGE_BYTES = 256 * 1024;
+    private static final int CONFIRMATION_TIMEOUT_MILLIS = 10_000;
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public String getUrlName() {
+        DeploymentEventsConfiguration config = DeploymentEventsConfiguration.get();
+        return config != null && config.isEnabled() ? URL_NAME : null;
+    }
+
+    /**
+     * Handles {@code POST oci-devops-events/<token>/}, the rest of the path is the token.
+     */
+    @RequirePOST
+    public HttpResponse doDynamic(StaplerRequest req) throws IOException {
+        String token = StringUtils.strip(req.getRestOfPath(), "/");
+        DeploymentEventsConfiguration config = DeploymentEventsConfiguration.get();
+        if (config == null || !config.isValidToken(token)) {
+            return HttpResponses.notFound();
+        }
+        String confirmationUrl = req.getHeader(CONFIRMATION_URL_HEADER);
+        if (confirmationUrl != null) {
+            return confirmSubscription(confirmationUrl);
+        }
+        try (InputStream in = req.getInputStream()) {
+            deploymentsUpdated(in);
+        }
+        return HttpResponses.ok();
+    }
+
+    /**
+     * Hands every deployment OCID in the first {@value #MAX_MESSAGE_BYTES} bytes of a message to the tracker.
+     *
+     * @return the number of deployments the tracker polls for the message
+     */
+    static int deploymentsUpdated(InputStream message) throws IOException {
+        String text = IOUtils.toString(new BoundedInputStream(message, MAX_MESSAGE_BYTES), StandardCharsets.UTF_8);
+        Matcher matcher = DEPLOYMENT_OCID_PATTERN.matcher(text);
+        int updated = 0;
+        while (matcher.find()) {
+            if (DeploymentTracker.get().deploymentUpdated(matcher.group())) {
+                LOGGER.log(Level.FINE, "Received event for tracked deployment {0}", matcher.group());
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Only subscription confirmation URLs of the Notifications service are fetched, anything else could be used to
+     * make the controller send requests on the sender's behalf.
+     */
+    static boolean isConfirmationUrl(URL url) {
+        return "https".equals(url.getProtocol())
+                && url.getUserInfo() == null
+                && (url.getPort() == -1 || url.getPort() == url.getDefaultPort())
+                && CONFIRMATION_HOST_PATTERN.matcher(url.getHost().toLowerCase(Locale.ENGLISH)).matches()
+                && url.getPath().startsWith(CONFIRMATION_PATH_PREFIX)
+                && !url.getPath().contains("/../");
+    }
+
+    private HttpResponse confirmSubscription(String confirmationUrl) {
+        try {
+            URL url = new URL(confirmationUrl);
+            if (!isConfirmationUrl(url)) {
+                LOGGER.log(Level.WARNING, "Ignoring subscription confirmation URL {0}", confirmationUrl);
+                return HttpResponses.status(HttpServletResponse.SC_BAD_REQUEST);
+            }
+            URLConnection connection = ProxyConfiguration.open(url);
+            if (!(connection instanceof HttpURLConnection)) {
+                return HttpResponses.status(HttpServletResponse.SC_BAD_REQUEST);
+            }
+            // A redirect could lead anywhere.
+            ((HttpURLConnection) connection).setInstanceFollowRedirects(false);
+            connection.setConnectTimeout(CONFIRMATION_TIMEOUT_MILLIS);
+            connection.setReadTimeout(CONFIRMATION_TIMEOUT_MILLIS);
+            int status = ((HttpURLConnection) connection).getResponseCode();
+            LOGGER.log(Level.INFO, "Confirmed OCI Notifications subscription, response status {0}", status);
+            return HttpResponses.ok();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to confirm OCI Notifications subscription", e);
+            return HttpResponses.status(HttpServletResponse.SC_BAD_GATEWAY);
+        }
+    }
+
+    @Extension
+    public static class CrumbExclusionImpl extends CrumbExclusion {
+        @Override
+        public boolean process(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            String pathInfo = request.getPathInfo();
+            if (pathInfo != null && (pathInfo.equals("/" + URL_NAME) || pathInfo.startsWith("/" + URL_NAME + "/"))) {
+                chain.doFilter(request, response);
+                return true;
+            }
+            return false;
+        }
+    }
+}
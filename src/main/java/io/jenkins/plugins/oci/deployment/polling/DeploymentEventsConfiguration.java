@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment.polling;
+
+import hudson.Extension;
+import hudson.util.Secret;
+import jenkins.model.GlobalConfiguration;
+import jenkins.model.Jenkins;
+import org.jenkinsci.Symbol;
+import org.kohsuke.stapler.DataBoundSetter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * Global settings of {@link DeploymentEventReceiver}. The receiver is off until an administrator enables it, which
+ * generates the secret token of the subscription URL. Disabling it drops the token, so enabling it again invalidates
+ * the URL of any earlier subscription.
+ */
+@Extension
+@Symbol("ociDeploymentEvents")
+public class DeploymentEventsConfiguration extends GlobalConfiguration {
+    private static final int TOKEN_BYTES = 32;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private boolean enabled;
+    private Secret token;
+
+    public DeploymentEventsConfiguration() {
+        load();
+    }
+
+    public static DeploymentEventsConfiguration get() {
+        return GlobalConfiguration.all().get(DeploymentEventsConfiguration.class);
+    }
+
+    public boolean isEnabled() {
+        return enabled && token != null;
+    }
+
+    @DataBoundSetter
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            token = null;
+        } else if (token == null) {
+            token = Secret.fromString(newToken());
+        }
+        save();
+    }
+
+    /**
+     * @return the URL to subscribe to the Notifications topic, or null while the receiver is disabled or the Jenkins
+     * URL is not configured
+     */
+    public String getSubscriptionUrl() {
+        String rootUrl = Jenkins.get().getRootUrl();
+        if (!isEnabled() || rootUrl == null) {
+            return null;
+        }
+        return rootUrl + DeploymentEventReceiver.URL_NAME + "/" + token.getPlainText() + "/";
+    }
+
+    boolean isValidToken(String candidate) {
+        if (!isEnabled() || candidate == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(token.getPlainText().getBytes(StandardCharsets.UTF_8),
+                candidate.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        StringBuilder token = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            token.append(String.format("%02x", b));
+        }
+        return token.toString();
+    }
+}
@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment.polling;
+
+import com.oracle.bmc.devops.DevopsClient;
+import com.oracle.bmc.devops.model.Deployment;
+import com.oracle.bmc.devops.model.DeploymentSummary;
+import com.oracle.bmc.devops.requests.GetDeploymentRequest;
+import com.oracle.bmc.devops.requests.ListDeploymentsRequest;
+import com.oracle.bmc.devops.responses.ListDeploymentsResponse;
+import hudson.init.Terminator;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import io.jenkins.plugins.oci.deployment.ExecutionMode;
+import io.jenkins.plugins.oci.metrics.PluginMetrics;
+import io.jenkins.plugins.oci.utils.CommonUtil;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Polls the state of all in-flight deployments from one small controller-wide scheduler, so that waiting for a
+ * deployment does not keep a thread sleeping between polls. Each tracked deployment completes a future once it
+ * reaches a state where the build no longer has to wait (see {@link CommonUtil#retryableLifeCycleState}), once a
+ * non-retryable error occurs, or with the last known state when the polling timeout elapses. The delay between
+ * polls follows the {@link PollingSchedule} of the deployment, capped so that the last poll happens at the timeout.
+ *
+ * <p>Deployments of the same pipeline tracked with the same credentials share one poller. Each deployment keeps its
+ * own next poll time; the poller wakes up when the first of them is due and fetches the state of all of them with a
+ * single listDeployments call. Only the deployments that are due are polled, the others keep their schedule unless
+ * the summary shows a state the build does not wait past. The full deployment is only fetched once the summary shows
+ * such a state, or when a deployment is missing from the list.
+ *
+ * <p>The tracker holds its own leases of the clients it polls with, so a build closing its lease, or the credentials
+ * being changed, never closes a client in the middle of a call.
+ *
+ * <p>{@link #deploymentUpdated} polls a single deployment tracked with {@link PollingStrategy#EVENTS} out of cycle;
+ * {@link DeploymentEventReceiver} calls it when the Notifications service delivers a deployment event, so builds see
+ * the new state without waiting for the next polling cycle. Events for the same deployment are debounced: at most one
+ * out of cycle poll is pending per deployment, and it runs at least {@link #EVENT_DEBOUNCE_MILLIS} after the previous
+ * poll of that deployment.
+ */
+public final class DeploymentTracker {
+    private static final Logger LOGGER = Logger.getLogger(DeploymentTracker.class.getName());
+    private static final int POLLING_THREADS = 4;
+    private static final int LIST_PAGE_LIMIT = 100;
+    static final long EVENT_DEBOUNCE_MILLIS = 2000;
+    private static final DeploymentTracker INSTANCE = new DeploymentTracker();
+
+    // Guarded by this. Created on first use, and again after shutdown() for a Jenkins started again in the same JVM.
+    private ScheduledExecutorService scheduler;
+    // Guarded by this.
+    private final Map<String, PipelinePoller> pollers = new HashMap<>();
+    // Guarded by this.
+    private final Map<String, TrackedDeployment> trackedById = new HashMap<>();
+
+    private DeploymentTracker() {
+    }
+
+    public static DeploymentTracker get() {
+        return INSTANCE;
+    }
+
+    private synchronized ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            AtomicInteger count = new AtomicInteger();
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(POLLING_THREADS, r -> {
+                Thread thread = new Thread(r, "oci-deployment-tracker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            scheduler = executor;
+        }
+        return scheduler;
+    }
+
+    /**
+     * Stops polling and cancels the deployments still tracked. Pipeline steps resume monitoring after the restart.
+     */
+    @Terminator
+    public static void shutdown() {
+        INSTANCE.stop();
+    }
+
+    void stop() {
+        ScheduledExecutorService stopped;
+        List<TrackedDeployment> cancelled;
+        List<PipelinePoller> stoppedPollers;
+        synchronized (this) {
+            stopped = scheduler;
+            scheduler = null;
+            cancelled = new ArrayList<>(trackedById.values());
+            stoppedPollers = new ArrayList<>(pollers.values());
+            pollers.clear();
+            trackedById.clear();
+        }
+        if (stopped != null) {
+            stopped.shutdownNow();
+        }
+        for (TrackedDeployment tracked : cancelled) {
+            tracked.completion.cancel(false);
+            tracked.releaseClient();
+        }
+        stoppedPollers.forEach(poller -> poller.lease.close());
+    }
+
+    /**
+     * Starts polling a deployment returned by createDeployment. Cancelling the returned future stops polling it.
+     *
+     * @param credentialsId the credentials {@code client} signs with; only deployments tracked with the same
+     *                      credentials share a listDeployments call
+     * @param client the client to poll with; the tracker takes its own lease, the caller may close this one as soon
+     *               as it no longer needs it
+     */
+    public CompletableFuture<Deployment> track(String credentialsId, Deployment deployment,
+                                               CloudClientPool.Lease<DevopsClient> client, ExecutionMode executionMode,
+                                               PollingConfig pollingConfig) {
+        TrackedDeployment tracked = new TrackedDeployment(deployment, client.retain(), executionMode, pollingConfig);
+        String key = credentialsId + "|" + deployment.getDeployPipelineId();
+        synchronized (this) {
+            PipelinePoller poller = pollers.get(key);
+            if (poller == null) {
+                poller = new PipelinePoller(key, deployment.getDeployPipelineId(), scheduler(), client.retain());
+                pollers.put(key, poller);
+            }
+            poller.members.add(tracked);
+            trackedById.put(deployment.getId(), tracked);
+            if (!poller.polling) {
+                // Otherwise the cycle in progress schedules the next one, including this deployment.
+                poller.scheduleAt(tracked.nextPollNanos);
+            }
+        }
+        return tracked.completion;
+    }
+
+    /**
+     * Polls a deployment tracked with {@link PollingStrategy#EVENTS} soon, because an event reported a change of its
+     * state. The event itself is not trusted, the state always comes from the DevOps service. Unknown ids, and
+     * deployments tracked with another strategy, are ignored. An event arriving while a poll for an earlier one is
+     * still pending is folded into that poll.
+     *
+     * @return whether the deployment is tracked with {@link PollingStrategy#EVENTS}
+     */
+    public boolean deploymentUpdated(String deploymentId) {
+        TrackedDeployment tracked;
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            tracked = trackedById.get(deploymentId);
+            if (tracked == null || !tracked.eventDriven) {
+                return false;
+            }
+            if (tracked.eventPending) {
+                return true;
+            }
+            tracked.eventPending = true;
+            executor = scheduler();
+        }
+        long delayNanos = tracked.lastPollNanos + TimeUnit.MILLISECONDS.toNanos(EVENT_DEBOUNCE_MILLIS) - System.nanoTime();
+        try {
+            executor.schedule(() -> {
+                synchronized (DeploymentTracker.this) {
+                    // Events arriving from now on need another poll.
+                    tracked.eventPending = false;
+                }
+                tracked.update(null);
+            }, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                tracked.eventPending = false;
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private final class PipelinePoller {
+        private final String key;
+        private final String pipelineId;
+        // The scheduler at the time the poller was created, once it is shut down the poller stops.
+        private final ScheduledExecutorService scheduler;
+        // Owned by the poller and closed once it has no members left, for listDeployments.
+        private final CloudClientPool.Lease<DevopsClient> lease;
+        // Guarded by DeploymentTracker.this.
+        private final List<TrackedDeployment> members = new ArrayList<>();
+        // Guarded by DeploymentTracker.this. Only one cycle runs at a time.
+        private boolean polling;
+        // Guarded by DeploymentTracker.this. The next cycle, null while a cycle is running.
+        private ScheduledFuture<?> next;
+        private long nextRunNanos;
+
+        private PipelinePoller(String key, String pipelineId, ScheduledExecutorService scheduler,
+                               CloudClientPool.Lease<DevopsClient> lease) {
+            this.key = key;
+            this.pipelineId = pipelineId;
+            this.scheduler = scheduler;
+            this.lease = lease;
+        }
+
+        // Caller holds DeploymentTracker.this. Only ever brings the next cycle forward.
+        private void scheduleAt(long runNanos) {
+            if (next != null && nextRunNanos - runNanos <= 0) {
+                return;
+            }
+            if (next != null) {
+                next.cancel(false);
+            }
+            try {
+                next = scheduler.schedule(this::poll, Math.max(0, runNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+                nextRunNanos = runNanos;
+            } catch (RejectedExecutionException e) {
+                next = null;
+                LOGGER.log(Level.FINE, "Stopped polling deployments of pipeline {0}, Jenkins is shutting down", pipelineId);
+            }
+        }
+
+        private void poll() {
+            List<TrackedDeployment> active;
+            synchronized (DeploymentTracker.this) {
+                if (polling) {
+                    return;
+                }
+                polling = true;
+                next = null;
+                active = activeMembers();
+            }
+            try {
+                pollDue(active);
+            } finally {
+                List<TrackedDeployment> remaining;
+                synchronized (DeploymentTracker.this) {
+                    polling = false;
+                    remaining = activeMembers();
+                    Long runNanos = null;
+                    for (TrackedDeployment tracked : remaining) {
+                        if (runNanos == null || tracked.nextPollNanos - runNanos < 0) {
+                            runNanos = tracked.nextPollNanos;
+                        }
+                    }
+                    if (runNanos != null) {
+                        scheduleAt(runNanos);
+                    }
+                }
+                if (remaining.isEmpty()) {
+                    lease.close();
+                }
+            }
+        }
+
+        private void pollDue(List<TrackedDeployment> active) {
+            long now = System.nanoTime();
+            List<TrackedDeployment> due = new ArrayList<>();
+            for (TrackedDeployment tracked : active) {
+                if (now - tracked.nextPollNanos >= 0) {
+                    due.add(tracked);
+                }
+            }
+            if (due.isEmpty()) {
+                return;
+            }
+            Map<String, DeploymentSummary> summaries = null;
+            boolean throttled = false;
+            try {
+                summaries = listDeployments(active);
+            } catch (Exception e) {
+                // When throttled, getting the deployments one by one would only make it worse.
+                throttled = CommonUtil.isThrottled(e);
+                PluginMetrics.retried(throttled);
+                LOGGER.log(Level.FINE, "Failed to list deployments of pipeline " + pipelineId
+                        + (throttled ? ", backing off" : ", getting them one by one"), e);
+            }
+            for (TrackedDeployment tracked : active) {
+                DeploymentSummary summary = summaries == null ? null : summaries.get(tracked.request.getDeploymentId());
+                if (!due.contains(tracked)) {
+                    tracked.observe(summary);
+                } else if (throttled) {
+                    tracked.backOff();
+                } else {
+                    tracked.update(summary);
+                }
+            }
+        }
+
+        // Drops the completed or cancelled members, and the poller itself once it has none left.
+        private List<TrackedDeployment> activeMembers() {
+            List<TrackedDeployment> done = new ArrayList<>();
+            List<TrackedDeployment> active;
+            synchronized (DeploymentTracker.this) {
+                members.removeIf(tracked -> {
+                    if (tracked.completion.isDone()) {
+                        trackedById.remove(tracked.request.getDeploymentId(), tracked);
+                        done.add(tracked);
+                        return true;
+                    }
+                    return false;
+                });
+                if (members.isEmpty()) {
+                    // After a restart of the tracker another poller may have the same key.
+                    pollers.remove(key, this);
+                }
+                active = new ArrayList<>(members);
+            }
+            // Waits for an out of cycle poll of the deployment still using the client.
+            done.forEach(TrackedDeployment::releaseClient);
+            return active;
+        }
+
+        private Map<String, DeploymentSummary> listDeployments(List<TrackedDeployment> active) {
+            // Only deployments created since the oldest tracked one are of interest.
+            Date createdSince = null;
+            for (TrackedDeployment tracked : active) {
+                if (tracked.timeCreated == null) {
+                    createdSince = null;
+                    break;
+                }
+                if (createdSince == null || tracked.timeCreated.before(createdSince)) {
+                    createdSince = tracked.timeCreated;
+                }
+            }
+            DevopsClient client = lease.get();
+            Map<String, DeploymentSummary> summaries = new HashMap<>();
+            String page = null;
+            do {
+                ListDeploymentsResponse response = client.listDeployments(ListDeploymentsRequest.builder()
+                        .deployPipelineId(pipelineId)
+                        .timeCreatedGreaterThanOrEqualTo(createdSince)
+                        .limit(LIST_PAGE_LIMIT)
+                        .page(page)
+                        .build());
+                for (DeploymentSummary summary : response.getDeploymentCollection().getItems()) {
+                    summaries.put(summary.getId(), summary);
+                }
+                page = response.getOpcNextPage();
+            } while (page != null);
+            return summaries;
+        }
+    }
+
+    private static final class TrackedDeployment {
+        private final GetDeploymentRequest request;
+        private final Date timeCreated;
+        private final CloudClientPool.Lease<DevopsClient> lease;
+        private final ExecutionMode executionMode;
+        private final PollingSchedule schedule;
+        private final boolean eventDriven;
+        private final long startNanos;
+        private final long deadlineNanos;
+        private final CompletableFuture<Deployment> completion = new CompletableFuture<>();
+        private int polls;
+        private Deployment lastDeployment;
+        private Exception lastError;
+        private boolean released;
+        // Read by the poller to find the deployments that are due.
+        private volatile long nextPollNanos;
+        // Read by deploymentUpdated to debounce events.
+        private volatile long lastPollNanos;
+        // Guarded by DeploymentTracker.this. An out of cycle poll for an event is scheduled.
+        private boolean eventPending;
+
+        private TrackedDeployment(Deployment deployment, CloudClientPool.Lease<DevopsClient> lease,
+                                  ExecutionMode executionMode, PollingConfig pollingConfig) {
+            this.request = GetDeploymentRequest.builder().deploymentId(deployment.getId()).build();
+            this.timeCreated = deployment.getTimeCreated();
+            this.lease = lease;
+            this.executionMode = executionMode;
+            this.lastDeployment = deployment;
+            this.schedule = pollingConfig.newSchedule();
+            this.eventDriven = pollingConfig.getPollingStrategy() == PollingStrategy.EVENTS;
+            this.startNanos = System.nanoTime();
+            this.deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(pollingConfig.getTimeoutSeconds());
+            this.nextPollNanos = startNanos;
+            this.lastPollNanos = startNanos;
+            completion.whenComplete(this::recordCompletion);
+        }
+
+        // Runs in the thread completing the future, which holds the lock unless the build cancelled it.
+        private void recordCompletion(Deployment deployment, Throwable error) {
+            if (error instanceof CancellationException) {
+                return;
+            }
+            PluginMetrics.recordValue(PluginMetrics.DEPLOYMENT_POLLS, polls);
+            if (deployment != null && !CommonUtil.retryableLifeCycleState(deployment, executionMode)) {
+                PluginMetrics.recordTime(PluginMetrics.DEPLOYMENT_COMPLETION, System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        /**
+         * @param summary the state of the deployment from this cycle's listDeployments call, or null if unknown
+         */
+        private synchronized void update(DeploymentSummary summary) {
+            if (completion.isDone() || released) {
+                return;
+            }
+            polls++;
+            lastPollNanos = System.nanoTime();
+            boolean lastPoll = System.nanoTime() - deadlineNanos >= 0;
+            boolean throttled = false;
+            try {
+                if (summary == null || lastPoll
+                        || !CommonUtil.retryableLifeCycleState(summary.getLifecycleState(), executionMode)) {
+                    lastDeployment = lease.get().getDeployment(request).getDeployment();
+                }
+                lastError = null;
+                if (!CommonUtil.retryableLifeCycleState(lastDeployment, executionMode)) {
+                    completion.complete(lastDeployment);
+                    return;
+                }
+            } catch (Exception e) {
+                if (!CommonUtil.retryableException(e)) {
+                    completion.completeExceptionally(e);
+                    return;
+                }
+                LOGGER.log(Level.FINE, "Failed to get deployment " + request.getDeploymentId() + ", retrying", e);
+                throttled = CommonUtil.isThrottled(e);
+                PluginMetrics.retried(throttled);
+                lastError = e;
+            }
+            if (lastPoll) {
+                completeWithLastState();
+                return;
+            }
+            scheduleNext(throttled);
+        }
+
+        /**
+         * The summary of a deployment that is not due yet comes for free with the listDeployments call of the others.
+         * It only changes anything when it shows a state the build does not wait past, the deployment is then fetched
+         * right away instead of at its next poll.
+         */
+        private void observe(DeploymentSummary summary) {
+            if (summary != null && !CommonUtil.retryableLifeCycleState(summary.getLifecycleState(), executionMode)) {
+                update(summary);
+            }
+        }
+
+        private synchronized void backOff() {
+            if (completion.isDone()) {
+                return;
+            }
+            if (System.nanoTime() - deadlineNanos >= 0) {
+                completeWithLastState();
+                return;
+            }
+            scheduleNext(true);
+        }
+
+        // The last poll happens at the deadline, whatever the schedule.
+        private void scheduleNext(boolean throttled) {
+            long now = System.nanoTime();
+            long delayNanos = TimeUnit.MILLISECONDS.toNanos(schedule.nextDelayMillis(throttled));
+            nextPollNanos = now + Math.max(0, Math.min(delayNanos, deadlineNanos - now));
+        }
+
+        private void completeWithLastState() {
+            if (lastError != null) {
+                completion.completeExceptionally(lastError);
+            } else {
+                completion.complete(lastDeployment);
+            }
+        }
+
+        // Waits for a poll in progress, so that the client is never released in the middle of a call.
+        private synchronized void releaseClient() {
+            if (!released) {
+                released = true;
+                lease.close();
+            }
+        }
+    }
+}
@@ -5,13 +5,25 @@
 
 package io.jenkins.plugins.oci.deployment.polling;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 
-public class PollingConfig {
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+// Serializable so that pipeline steps can keep it across controller restarts.
+public class PollingConfig implements Serializable {
+    private static final long serialVersionUID = 1L;
     private long timeoutSeconds;
     private long pollingIntervalSeconds;
     private boolean isValid;
+    // With the exponential strategy pollingIntervalSeconds is the longest delay between two polls.
+    private PollingStrategy pollingStrategy;
+    private long initialPollingIntervalSeconds;
+    private double backoffMultiplier;
     private final static long TIMEOUT_DEFAULT_VAL = 2 * 60;
     private final static long POLLING_INTERVAL_DAFAULT_VAL = 10;
+    private final static long INITIAL_POLLING_INTERVAL_DEFAULT_VAL = 2;
+    private final static double BACKOFF_MULTIPLIER_DEFAULT_VAL = 2.0;
 
     @DataBoundConstructor
     public PollingConfig(long timeoutSeconds, long pollingIntervalSeconds) throws Exception {
@@ -48,4 +60,48 @@ public class PollingConfig {
     public void setIsValid(boolean isValid) {
         this.isValid = isValid;
     }
+
+    // The getters below return the defaults for configurations saved before these settings existed.
+    public PollingStrategy getPollingStrategy() {
+        return pollingStrategy != null ? pollingStrategy : PollingStrategy.FIXED;
+    }
+    public long getInitialPollingIntervalSeconds() {
+        return initialPollingIntervalSeconds > 0 ? initialPollingIntervalSeconds : INITIAL_POLLING_INTERVAL_DEFAULT_VAL;
+    }
+    public double getBackoffMultiplier() {
+        return backoffMultiplier > 0 ? backoffMultiplier : BACKOFF_MULTIPLIER_DEFAULT_VAL;
+    }
+    @DataBoundSetter
+    public void setPollingStrategy(PollingStrategy pollingStrategy) {
+        this.pollingStrategy = pollingStrategy;
+    }
+    @DataBoundSetter
+    public void setInitialPollingIntervalSeconds(long initialPollingIntervalSeconds) {
+        this.initialPollingIntervalSeconds = initialPollingIntervalSeconds;
+    }
+    @DataBoundSetter
+    public void setBackoffMultiplier(double backoffMultiplier) {
+        this.backoffMultiplier = backoffMultiplier;
+    }
+
+    /**
+     * A copy of this configuration with another timeout, for example the time left when monitoring resumes.
+     */
+    public PollingConfig withTimeoutSeconds(long timeoutSeconds) {
+        PollingConfig copy = new PollingConfig();
+        copy.timeoutSeconds = timeoutSeconds;
+        copy.pollingIntervalSeconds = pollingIntervalSeconds;
+        copy.isValid = isValid;
+        copy.pollingStrategy = pollingStrategy;
+        copy.initialPollingIntervalSeconds = initialPollingIntervalSeconds;
+        copy.backoffMultiplier = backoffMultiplier;
+        return copy;
+    }
+
+    public PollingSchedule newSchedule() {
+        return new PollingSchedule(getPollingStrategy(),
+                TimeUnit.SECONDS.toMillis(getInitialPollingIntervalSeconds()),
+                TimeUnit.SECONDS.toMillis(pollingIntervalSeconds),
+                getBackoffMultiplier());
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment.polling;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The delays between the polls of one deployment, as configured by a {@link PollingConfig}.
+ *
+ * <p>With {@link PollingStrategy#EXPONENTIAL} the first delay is the initial polling interval, each following delay
+ * is multiplied by the backoff multiplier up to the polling interval, and every delay is randomized by
+ * {@value #JITTER_FACTOR} so that builds started together do not poll in lockstep. When the service throttles
+ * requests the schedule jumps straight to the polling interval.
+ *
+ * <p>With {@link PollingStrategy#EVENTS} deployment events trigger the polls, the schedule only polls every
+ * {@value #EVENTS_FALLBACK_FACTOR} polling intervals in case an event is lost.
+ */
+public final class PollingSchedule {
+    static final double JITTER_FACTOR = 0.2;
+    static final int EVENTS_FALLBACK_FACTOR = 6;
+
+    private final PollingStrategy strategy;
+    private final long maxDelayMillis;
+    private final double multiplier;
+    private long currentDelayMillis;
+
+    PollingSchedule(PollingStrategy strategy, long initialDelayMillis, long maxDelayMillis, double multiplier) {
+        this.strategy = strategy;
+        this.maxDelayMillis = maxDelayMillis;
+        this.multiplier = multiplier;
+        this.currentDelayMillis = Math.min(initialDelayMillis, maxDelayMillis);
+    }
+
+    /**
+     * @param throttled whether the last poll was rejected with 429 Too Many Requests
+     */
+    public long nextDelayMillis(boolean throttled) {
+        if (strategy == PollingStrategy.EVENTS) {
+            return maxDelayMillis * EVENTS_FALLBACK_FACTOR;
+        }
+        if (strategy != PollingStrategy.EXPONENTIAL) {
+            return maxDelayMillis;
+        }
+        if (throttled) {
+            currentDelayMillis = maxDelayMillis;
+        }
+        long delay = currentDelayMillis;
+        currentDelayMillis = Math.min(maxDelayMillis, (long) (currentDelayMillis * multiplier));
+        long jitter = (long) (delay * JITTER_FACTOR);
+        return Math.max(TimeUnit.SECONDS.toMillis(1), delay - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1));
+    }
+}
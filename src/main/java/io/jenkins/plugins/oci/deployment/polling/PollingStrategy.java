@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment.polling;
+
+public enum PollingStrategy {
+    // Fixed: poll every pollingIntervalSeconds; Exponential: start fast and back off up to pollingIntervalSeconds;
+    // Events: rely on deployment events delivered by the Notifications service, polling every
+    // PollingSchedule.EVENTS_FALLBACK_FACTOR times pollingIntervalSeconds only as a fallback. Only deployments
+    // tracked with this strategy are polled on events.
+    FIXED,
+    EXPONENTIAL,
+    EVENTS
+}
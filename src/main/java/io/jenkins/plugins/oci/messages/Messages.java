@@ -14,6 +14,8 @@ public class Messages {
     public static class DisplayNames {
         public static final String CREDENTIAL_DISPLAY_NAME = "Oracle Cloud Infrastructure Credentials - Devops";
         public static final String DEPLOYMENT_DISPLAY_NAME = "OCI Deployment";
+        public static final String MULTI_DEPLOYMENT_DISPLAY_NAME = "OCI Multi-Target Deployment";
+        public static final String DEPLOYMENT_STEP_DISPLAY_NAME = "OCI Deployment Step";
         public static final String ARTIFACT_UPLOAD_DISPLAY_NAME = "OCI Artifact Upload";
     }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.metrics;
+
+import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import jenkins.metrics.api.Metrics;
+import jenkins.model.Jenkins;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The metrics of the plugin, registered with the Metrics plugin under {@value #PREFIX} so they are reported with the
+ * other Jenkins metrics, and served as JSON by {@link PluginMetricsAction}. The Metrics plugin is an optional
+ * dependency: without it, and where Jenkins is not running, on agents for example, they are recorded in a registry of
+ * their own, which {@link PluginMetricsAction} still serves on the controller.
+ */
+public final class PluginMetrics {
+    public static final String PREFIX = "oci.devops.";
+
+    /** Timer: resolving the credentials and signer of a step, mostly cache hits. */
+    public static final String AUTH_RESOLUTION = PREFIX + "auth.resolution";
+    /** Timer: creating an SDK client, which only happens when no pooled one can be reused. */
+    public static final String CLIENT_CREATION = PREFIX + "client.creation";
+    /** Timer: the createDeployment call. */
+    public static final String CREATE_DEPLOYMENT = PREFIX + "deployment.create";
+    /** Timer: from the start of tracking a deployment to the state the build stops waiting at. */
+    public static final String DEPLOYMENT_COMPLETION = PREFIX + "deployment.completion";
+    /** Histogram: the polls a deployment needed until the build stopped waiting. */
+    public static final String DEPLOYMENT_POLLS = PREFIX + "deployment.polls";
+    /** Histogram: the throughput of each uploaded artifact, in bytes per second. */
+    public static final String UPLOAD_THROUGHPUT = PREFIX + "upload.bytesPerSecond";
+    /** Meter: uploaded bytes. */
+    public static final String UPLOAD_BYTES = PREFIX + "upload.bytes";
+    /**
+     * Counter: OCI calls retried by the plugin after a failure. Retries made by the retrier of the OCI SDK within a
+     * single call, such as the attempts of an artifact upload, are not seen by the plugin and not counted, so this
+     * under-reports the calls actually retried.
+     */
+    public static final String RETRIES = PREFIX + "retries";
+    /** Counter: OCI calls that were throttled, with the same limitation as {@link #RETRIES}. */
+    public static final String THROTTLES = PREFIX + "throttles";
+
+    private static final String METRICS_PLUGIN = "metrics";
+    private static final MetricRegistry DETACHED = new MetricRegistry();
+    // Plugins are not unloaded while Jenkins runs, once found the Metrics plugin is not looked up again.
+    private static volatile boolean metricsPluginLoaded;
+
+    private PluginMetrics() {
+    }
+
+    static MetricRegistry registry() {
+        if (!metricsPluginLoaded) {
+            Jenkins jenkins = Jenkins.getInstanceOrNull();
+            if (jenkins == null || jenkins.getPlugin(METRICS_PLUGIN) == null) {
+                return DETACHED;
+            }
+            metricsPluginLoaded = true;
+        }
+        return MetricsPlugin.registry();
+    }
+
+    // Only loaded once the Metrics plugin is known to be installed, its classes are missing otherwise.
+    private static final class MetricsPlugin {
+        static MetricRegistry registry() {
+            return Metrics.metricRegistry();
+        }
+    }
+
+    static MetricFilter filter() {
+        return (name, metric) -> name.startsWith(PREFIX);
+    }
+
+    /**
+     * Times a block, for example {@code try (Timer.Context ignored = PluginMetrics.time(CREATE_DEPLOYMENT)) {...}}.
+     */
+    public static Timer.Context time(String name) {
+        return registry().timer(name).time();
+    }
+
+    public static void recordTime(String name, long duration, TimeUnit unit) {
+        registry().timer(name).update(duration, unit);
+    }
+
+    public static void recordValue(String name, long value) {
+        registry().histogram(name).update(value);
+    }
+
+    public static void mark(String name, long count) {
+        registry().meter(name).mark(count);
+    }
+
+    public static void increment(String name) {
+        registry().counter(name).inc();
+    }
+
+    /**
+     * Records a retried call, and whether it was retried because it was throttled.
+     */
+    public static void retried(boolean throttled) {
+        increment(RETRIES);
+        if (throttled) {
+            increment(THROTTLES);
+        }
+    }
+
+    /**
+     * Records an uploaded artifact; uploads too short to measure only count towards the bytes.
+     */
+    public static void uploaded(long bytes, long durationMillis) {
+        mark(UPLOAD_BYTES, bytes);
+        if (durationMillis > 0) {
+            recordValue(UPLOAD_THROUGHPUT, bytes * 1000 / durationMillis);
+        }
+    }
+}
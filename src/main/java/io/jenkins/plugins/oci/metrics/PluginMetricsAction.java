@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.metrics;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Snapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import hudson.Extension;
+import hudson.model.RootAction;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@link PluginMetrics} as JSON at {@code JENKINS_URL/oci-devops-metrics/}, for users with the System Read
+ * permission. Timers are reported in milliseconds.
+ */
+@Extension
+public class PluginMetricsAction implements RootAction {
+    static final String URL_NAME = "oci-devops-metrics";
+    private static final ObjectWriter WRITER = new ObjectMapper().writerWithDefaultPrettyPrinter();
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    public void doIndex(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        Map<String, Object> metrics = new TreeMap<>();
+        PluginMetrics.registry().getTimers(PluginMetrics.filter()).forEach((name, timer) ->
+                metrics.put(name, snapshot(timer.getCount(), timer.getSnapshot(), NANOS_PER_MILLI)));
+        PluginMetrics.registry().getHistograms(PluginMetrics.filter()).forEach((name, histogram) ->
+                metrics.put(name, snapshot(histogram.getCount(), histogram.getSnapshot(), 1)));
+        PluginMetrics.registry().getMeters(PluginMetrics.filter()).forEach((name, meter) ->
+                metrics.put(name, rates(meter)));
+        PluginMetrics.registry().getCounters(PluginMetrics.filter()).forEach((name, counter) ->
+                metrics.put(name, counter.getCount()));
+        rsp.setContentType("application/json;charset=UTF-8");
+        WRITER.writeValue(rsp.getWriter(), metrics);
+    }
+
+    private static Map<String, Object> snapshot(long count, Snapshot snapshot, double unit) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", count);
+        values.put("min", snapshot.getMin() / unit);
+        values.put("mean", snapshot.getMean() / unit);
+        values.put("p50", snapshot.getMedian() / unit);
+        values.put("p95", snapshot.get95thPercentile() / unit);
+        values.put("p99", snapshot.get99thPercentile() / unit);
+        values.put("max", snapshot.getMax() / unit);
+        return values;
+    }
+
+    private static Map<String, Object> rates(Meter meter) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("count", meter.getCount());
+        values.put("m1_rate", meter.getOneMinuteRate());
+        values.put("m15_rate", meter.getFifteenMinuteRate());
+        values.put("mean_rate", meter.getMeanRate());
+        return values;
+    }
+}
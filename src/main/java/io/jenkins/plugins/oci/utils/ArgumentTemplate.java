@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A deployment argument template, compiled once into literal and variable segments so that rendering it is a
+ * single pass over the segments.
+ *
+ * <ul>
+ *     <li>{@code ${NAME}}, where NAME consists of letters, digits and underscores, is replaced by the value of the
+ *     variable. Values are inserted as they are, '$' and '\' included. Unknown variables are left as they are.</li>
+ *     <li>{@code \\$} stands for a literal '$', so {@code \\${NAME}} renders as {@code ${NAME}}. In a JSON string
+ *     this is written {@code \\\\${NAME}}.</li>
+ *     <li>A '$' preceded by a single '\' is not substituted either, and both characters are kept.</li>
+ * </ul>
+ */
+public final class ArgumentTemplate {
+    private final String template;
+    // For a variable, segments holds its name and unresolved holds the text kept when the variable is not set.
+    private final String[] segments;
+    private final String[] unresolved;
+    private final int literalLength;
+
+    private ArgumentTemplate(String template, List<String> segments, List<String> unresolved) {
+        this.template = template;
+        this.segments = segments.toArray(new String[0]);
+        this.unresolved = unresolved.toArray(new String[0]);
+        int length = 0;
+        for (int i = 0; i < this.segments.length; i++) {
+            if (this.unresolved[i] == null) {
+                length += this.segments[i].length();
+            }
+        }
+        this.literalLength = length;
+    }
+
+    public static ArgumentTemplate compile(String template) {
+        List<String> segments = new ArrayList<>();
+        List<String> unresolved = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int length = template.length();
+        int i = 0;
+        while (i < length) {
+            char c = template.charAt(i);
+            if (c == '\\' && template.startsWith("\\$", i + 1)) {
+                literal.append('$');
+                i += 3;
+            } else if (c == '\\' && i + 1 < length && template.charAt(i + 1) == '$') {
+                literal.append("\\$");
+                i += 2;
+            } else if (c == '$' && i + 1 < length && template.charAt(i + 1) == '{') {
+                int end = variableEnd(template, i + 2);
+                if (end < 0) {
+                    literal.append(c);
+                    i++;
+                    continue;
+                }
+                if (literal.length() > 0) {
+                    segments.add(literal.toString());
+                    unresolved.add(null);
+                    literal.setLength(0);
+                }
+                segments.add(template.substring(i + 2, end));
+                unresolved.add(template.substring(i, end + 1));
+                i = end + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        if (literal.length() > 0) {
+            segments.add(literal.toString());
+            unresolved.add(null);
+        }
+        return new ArgumentTemplate(template, segments, unresolved);
+    }
+
+    // The index of the '}' closing a variable name starting at start, or -1 if there is no valid name there.
+    private static int variableEnd(String template, int start) {
+        for (int i = start; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == '}') {
+                return i;
+            }
+            if (!(c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public String render(Map<String, String> variables) {
+        StringBuilder sb = new StringBuilder(literalLength + 16 * segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            if (unresolved[i] == null) {
+                sb.append(segments[i]);
+                continue;
+            }
+            String value = variables.get(segments[i]);
+            sb.append(value != null ? value : unresolved[i]);
+        }
+        return sb.toString();
+    }
+}
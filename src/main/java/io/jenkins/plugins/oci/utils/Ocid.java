@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.utils;
+
+/**
+ * A validated OCID, {@code ocid1.<entity type>.<realm>.<region>.<unique id>}, parsed without regular expressions or
+ * splitting. The parts are kept as offsets into the OCID and only copied out when asked for, so parsing allocates
+ * nothing but this object.
+ *
+ * <p>The rules, and the order they are checked in, are those {@link CommonUtil#parseRegionFromOCID(String)} always
+ * applied: parts are separated by '.' or ':', trailing empty parts are ignored, there must be at least five parts,
+ * the region may be empty and the entity type, realm and region must start with a letter, end with a letter or digit
+ * and otherwise contain letters, digits, '-' and '_'. Letters are ASCII letters of either case.</p>
+ */
+public final class Ocid {
+    private static final int ENTITY_TYPE_MAX_LENGTH = 32;
+    private static final int REALM_MAX_LENGTH = 15;
+    private static final int REGION_MAX_LENGTH = 24;
+    private static final int MAX_PARTS = 5;
+    private static final int MAX_OCID_LENGTH = 255;
+
+    private final String value;
+    // The index of the separator ending the version, entity type, realm and region.
+    private final int versionEnd;
+    private final int entityTypeEnd;
+    private final int realmEnd;
+    private final int regionEnd;
+
+    private Ocid(String value, int versionEnd, int entityTypeEnd, int realmEnd, int regionEnd) {
+        this.value = value;
+        this.versionEnd = versionEnd;
+        this.entityTypeEnd = entityTypeEnd;
+        this.realmEnd = realmEnd;
+        this.regionEnd = regionEnd;
+    }
+
+    public static Ocid parse(String possibleOcid) throws IllegalArgumentException {
+        if (possibleOcid == null) {
+            throw new NullPointerException("possibleOcid");
+        }
+        int length = possibleOcid.length();
+        if (length > MAX_OCID_LENGTH) {
+            throw new IllegalArgumentException("OCID is too long");
+        }
+        int end = length;
+        while (end > 0 && isSeparator(possibleOcid.charAt(end - 1))) {
+            end--;
+        }
+        // The number of parts is checked before their content, so "foo.bar" has too few parts, not an invalid version.
+        int partCount = 1;
+        for (int i = 0; i < end; i++) {
+            if (isSeparator(possibleOcid.charAt(i))) {
+                partCount++;
+            }
+        }
+        if (end == 0 || partCount < MAX_PARTS) {
+            throw new IllegalArgumentException("OCID has too few parts");
+        }
+        int versionEnd = 0;
+        int entityTypeEnd = 0;
+        int realmEnd = 0;
+        int regionEnd = 0;
+        int parts = 0;
+        int start = 0;
+        for (int i = 0; i <= end; i++) {
+            if (i < end && !isSeparator(possibleOcid.charAt(i))) {
+                continue;
+            }
+            switch (parts) {
+                case 0:
+                    if (isBlank(possibleOcid, start, i)) {
+                        throw new IllegalArgumentException("OCID has missing version");
+                    }
+                    if (!isVersion(possibleOcid, start, i)) {
+                        throw new IllegalArgumentException("OCID has invalid version");
+                    }
+                    versionEnd = i;
+                    break;
+                case 1:
+                    if (isBlank(possibleOcid, start, i)) {
+                        throw new IllegalArgumentException("OCID has missing entity type");
+                    }
+                    if (!isCommonPart(possibleOcid, start, i, ENTITY_TYPE_MAX_LENGTH)) {
+                        throw new IllegalArgumentException("OCID has invalid entity type");
+                    }
+                    entityTypeEnd = i;
+                    break;
+                case 2:
+                    if (isBlank(possibleOcid, start, i)) {
+                        throw new IllegalArgumentException("OCID has missing realm");
+                    }
+                    if (!isCommonPart(possibleOcid, start, i, REALM_MAX_LENGTH)) {
+                        throw new IllegalArgumentException("OCID has invalid realm");
+                    }
+                    realmEnd = i;
+                    break;
+                case 3:
+                    if (!isBlank(possibleOcid, start, i) && !isCommonPart(possibleOcid, start, i, REGION_MAX_LENGTH)) {
+                        throw new IllegalArgumentException("OCID has invalid region");
+                    }
+                    regionEnd = i;
+                    break;
+                default:
+                    if (!isOtherPart(possibleOcid, start, i)) {
+                        throw new IllegalArgumentException("OCID has invalid part " + parts);
+                    }
+            }
+            parts++;
+            start = i + 1;
+        }
+        return new Ocid(possibleOcid, versionEnd, entityTypeEnd, realmEnd, regionEnd);
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '.' || c == ':';
+    }
+
+    private static boolean isBlank(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVersion(String s, int start, int end) {
+        int length = end - start;
+        return (length == 5 && equalsIgnoreAsciiCase(s, start, "ocid1"))
+                || (length == 6 && equalsIgnoreAsciiCase(s, start, "ocidv1"));
+    }
+
+    // String.regionMatches(true, ...) would also match non-ASCII letters such as the dotless i.
+    private static boolean equalsIgnoreAsciiCase(String s, int start, String lowerCase) {
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char c = s.charAt(start + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCommonPart(String s, int start, int end, int maxLength) {
+        if (end - start < 2 || end - start > maxLength) {
+            return false;
+        }
+        if (!isLetter(s.charAt(start))) {
+            return false;
+        }
+        char last = s.charAt(end - 1);
+        if (!isLetter(last) && !isDigit(last)) {
+            return false;
+        }
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = s.charAt(i);
+            if (!isLetter(c) && !isDigit(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOtherPart(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (!isLetter(c) && !isDigit(c) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public String getEntityType() {
+        return value.substring(versionEnd + 1, entityTypeEnd);
+    }
+
+    public String getRealm() {
+        return value.substring(entityTypeEnd + 1, realmEnd);
+    }
+
+    /**
+     * The region code, such as {@code iad}, which is empty for OCIDs of resources that are not regional.
+     */
+    public String getRegion() {
+        return value.substring(realmEnd + 1, regionEnd);
+    }
+
+    /**
+     * Whether the region of this OCID is {@code region}, without copying it out.
+     */
+    public boolean isInRegion(String region) {
+        int length = regionEnd - realmEnd - 1;
+        return region.length() == length && value.regionMatches(realmEnd + 1, region, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ArtifactDigestIndexTest {
+    private static final String SCOPE = ArtifactDigestIndex.scope("creds", "ocid1.tenancy.oc1..a");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static UploadArtifactDetails detail(String artifactPath) {
+        return new UploadArtifactDetails("file", RepositoryType.GENERIC, "repo", "1", artifactPath);
+    }
+
+    @Test
+    public void digestsAreOnlySavedOnSave() throws Exception {
+        File file = new File(folder.getRoot(), "digests.txt");
+        ArtifactDigestIndex index = new ArtifactDigestIndex(file, 10);
+        index.put(SCOPE, detail("a b"), "aaa");
+        assertFalse(file.exists());
+        index.save();
+
+        ArtifactDigestIndex reloaded = new ArtifactDigestIndex(file, 10);
+        reloaded.load();
+        assertTrue(reloaded.contains(SCOPE, detail("a b"), "aaa"));
+        assertFalse(reloaded.contains(SCOPE, detail("a b"), "bbb"));
+    }
+
+    @Test
+    public void digestsAreScopedToTheCredentials() throws Exception {
+        ArtifactDigestIndex index = new ArtifactDigestIndex(new File(folder.getRoot(), "digests.txt"), 10);
+        index.put(SCOPE, detail("a"), "aaa");
+        assertFalse(index.contains(ArtifactDigestIndex.scope("other", "ocid1.tenancy.oc1..a"), detail("a"), "aaa"));
+        assertFalse(index.contains(ArtifactDigestIndex.scope("creds", "ocid1.tenancy.oc1..b"), detail("a"), "aaa"));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntriesAreDropped() throws Exception {
+        File file = new File(folder.getRoot(), "digests.txt");
+        ArtifactDigestIndex index = new ArtifactDigestIndex(file, 3);
+        index.put(SCOPE, detail("a"), "aaa");
+        index.put(SCOPE, detail("b"), "bbb");
+        index.put(SCOPE, detail("c"), "ccc");
+        assertTrue(index.contains(SCOPE, detail("a"), "aaa"));
+        index.put(SCOPE, detail("d"), "ddd");
+        assertEquals(3, index.size());
+        assertFalse(index.contains(SCOPE, detail("b"), "bbb"));
+        index.save();
+
+        ArtifactDigestIndex reloaded = new ArtifactDigestIndex(file, 3);
+        reloaded.load();
+        assertTrue(reloaded.contains(SCOPE, detail("a"), "aaa"));
+        assertTrue(reloaded.contains(SCOPE, detail("c"), "ccc"));
+        assertTrue(reloaded.contains(SCOPE, detail("d"), "ddd"));
+    }
+
+    @Test
+    public void unchangedIndexIsNotWritten() throws Exception {
+        File file = new File(folder.getRoot(), "digests.txt");
+        ArtifactDigestIndex index = new ArtifactDigestIndex(file, 10);
+        index.put(SCOPE, detail("a"), "aaa");
+        index.save();
+        assertTrue(file.delete());
+        index.put(SCOPE, detail("a"), "aaa");
+        index.save();
+        assertFalse(file.exists());
+    }
+}
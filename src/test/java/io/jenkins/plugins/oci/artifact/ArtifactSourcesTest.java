@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.AbortException;
+import hudson.FilePath;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ArtifactSourcesTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FilePath workspace;
+
+    @Before
+    public void createWorkspace() throws Exception {
+        workspace = new FilePath(folder.newFolder("workspace"));
+        workspace.child("build/libs/a.jar").write("a", "UTF-8");
+        workspace.child("build/libs/nested/b.jar").write("b", "UTF-8");
+        workspace.child("build/libs/c.txt").write("c", "UTF-8");
+        workspace.child("other/d.jar").write("d", "UTF-8");
+    }
+
+    private static UploadArtifactDetails detail(String sourcePath, String artifactPath) {
+        return new UploadArtifactDetails(sourcePath, RepositoryType.GENERIC, "repo", "1", artifactPath);
+    }
+
+    private static List<String> artifactPaths(ArtifactSources sources) {
+        List<String> paths = new ArrayList<>();
+        sources.forEachRemaining(detail -> paths.add(detail.getSourcePath() + " -> " + detail.getArtifactPath()));
+        Collections.sort(paths);
+        return paths;
+    }
+
+    @Test
+    public void patternsAreExpandedInALocalWorkspace() throws Exception {
+        try (ArtifactSources sources = new ArtifactSources(workspace, Arrays.asList(
+                detail("build/libs/**/*.jar", "jars/{path}"),
+                detail("other/d.jar", "d.jar")))) {
+            assertEquals(Arrays.asList(
+                    "build/libs/a.jar -> jars/a.jar",
+                    "build/libs/nested/b.jar -> jars/nested/b.jar",
+                    "other/d.jar -> d.jar"), artifactPaths(sources));
+            sources.checkFailure();
+        }
+    }
+
+    @Test
+    public void patternWithoutMatchEndsTheIteration() throws Exception {
+        try (ArtifactSources sources = new ArtifactSources(workspace, Arrays.asList(
+                detail("other/d.jar", "d.jar"),
+                detail("build/**/*.war", "{fileName}"),
+                detail("build/libs/c.txt", "c.txt")))) {
+            assertTrue(sources.hasNext());
+            assertEquals("other/d.jar", sources.next().getSourcePath());
+            // No exception from the iterator itself, the step reports the error once the uploads are done.
+            assertEquals(Collections.emptyList(), artifactPaths(sources));
+            try {
+                sources.checkFailure();
+                fail("Expected AbortException");
+            } catch (AbortException expected) {
+                assertEquals("No files found matching Source Path build/**/*.war", expected.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void closingBeforeTheLastMatchStopsALocalScan() throws Exception {
+        // More matches than the pipe between the scanning thread and the iterator holds.
+        for (int i = 0; i < 2000; i++) {
+            workspace.child(String.format("many/%04d-%s.jar", i, String.join("", Collections.nCopies(40, "x")))).write("", "UTF-8");
+        }
+        try (ArtifactSources sources = new ArtifactSources(workspace, Collections.singletonList(detail("many/*.jar", "{fileName}")))) {
+            assertTrue(sources.hasNext());
+            assertTrue(sources.next().getSourcePath().startsWith("many/"));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (scanThreadIsAlive()) {
+            assertTrue("The scan did not stop", System.nanoTime() < deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private static boolean scanThreadIsAlive() {
+        return Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.getName().startsWith("OCI artifact scan of "));
+    }
+
+    @Test
+    public void scannerReportsRelativePaths() throws Exception {
+        List<String> found = new ArrayList<>();
+        int count = ArtifactFileScanner.scan(new File(workspace.getRemote()), "**/*.jar", found::add);
+        Collections.sort(found);
+        assertEquals(3, count);
+        assertEquals(Arrays.asList("build/libs/a.jar", "build/libs/nested/b.jar", "other/d.jar"), found);
+    }
+}
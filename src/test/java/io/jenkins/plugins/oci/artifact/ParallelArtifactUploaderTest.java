@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.model.TaskListener;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ParallelArtifactUploaderTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static List<UploadArtifactDetails> details(int count) {
+        List<UploadArtifactDetails> details = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            details.add(new UploadArtifactDetails("file" + i, RepositoryType.GENERIC, "repo", "1", "path" + i));
+        }
+        return details;
+    }
+
+    private ParallelArtifactUploader uploader(int concurrency, boolean failFast) {
+        return new ParallelArtifactUploader(executor, concurrency, failFast, TaskListener.NULL);
+    }
+
+    @Test
+    public void uploadsAllInOrder() throws Exception {
+        for (int concurrency : new int[] {1, 4}) {
+            List<UploadArtifactResult> results = uploader(concurrency, true).upload(details(10).iterator(),
+                    detail -> UploadArtifactResult.uploaded(detail, 1, 0));
+            assertEquals(10, results.size());
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(UploadArtifactResult.Status.UPLOADED, results.get(i).getStatus());
+                assertEquals("file" + i, results.get(i).getSourcePath());
+            }
+        }
+    }
+
+    @Test
+    public void failFastStopsSequentialUploads() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<UploadArtifactResult> results = uploader(1, true).upload(details(5).iterator(), detail -> {
+            if (calls.incrementAndGet() == 2) {
+                throw new IllegalStateException("boom");
+            }
+            return UploadArtifactResult.uploaded(detail, 1, 0);
+        });
+        assertEquals(2, calls.get());
+        assertEquals(2, results.size());
+        assertEquals(UploadArtifactResult.Status.FAILED, results.get(1).getStatus());
+        assertEquals("boom", results.get(1).getErrorMessage());
+    }
+
+    @Test
+    public void failFastCancelsConcurrentUploads() throws Exception {
+        CountDownLatch never = new CountDownLatch(1);
+        List<UploadArtifactResult> results = uploader(3, true).upload(details(10).iterator(), detail -> {
+            if (detail.getSourcePath().equals("file1")) {
+                throw new IllegalStateException("boom");
+            }
+            never.await();
+            return UploadArtifactResult.uploaded(detail, 1, 0);
+        });
+        assertEquals(3, results.size());
+        assertEquals(UploadArtifactResult.Status.SKIPPED, results.get(0).getStatus());
+        assertEquals(UploadArtifactResult.Status.FAILED, results.get(1).getStatus());
+        assertEquals(UploadArtifactResult.Status.SKIPPED, results.get(2).getStatus());
+    }
+
+    @Test
+    public void collectAllErrorsUploadsTheRest() throws Exception {
+        for (int concurrency : new int[] {1, 3}) {
+            List<UploadArtifactResult> results = uploader(concurrency, false).upload(details(6).iterator(), detail -> {
+                if (detail.getSourcePath().equals("file1") || detail.getSourcePath().equals("file4")) {
+                    throw new IllegalStateException("boom");
+                }
+                return UploadArtifactResult.uploaded(detail, 1, 0);
+            });
+            assertEquals(6, results.size());
+            long failed = results.stream().filter(result -> result.getStatus() == UploadArtifactResult.Status.FAILED).count();
+            assertEquals(2, failed);
+            assertEquals(UploadArtifactResult.Status.UPLOADED, results.get(5).getStatus());
+        }
+    }
+
+    @Test
+    public void interruptedUploadAbortsEvenWhenCollectingAllErrors() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            uploader(1, false).upload(details(5).iterator(), detail -> {
+                calls.incrementAndGet();
+                throw new InterruptedIOException("aborted");
+            });
+            fail("Expected InterruptedException");
+        } catch (InterruptedException expected) {
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    public void interruptFlagAbortsEvenWhenCollectingAllErrors() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        try {
+            uploader(1, false).upload(details(5).iterator(), detail -> {
+                calls.incrementAndGet();
+                // As the SDK does when the request is interrupted: the flag is set, the exception is its own.
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("request interrupted");
+            });
+            fail("Expected InterruptedException");
+        } catch (InterruptedException expected) {
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    public void abortingConcurrentUploadsInterruptsThem() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger interrupted = new AtomicInteger();
+        Future<?> run = executor.submit(() ->
+                uploader(2, false).upload(details(10).iterator(), detail -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        interrupted.incrementAndGet();
+                        throw e;
+                    }
+                    return UploadArtifactResult.uploaded(detail, 1, 0);
+                }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        run.cancel(true);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (interrupted.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, interrupted.get());
+        // Nothing else was started once the run was interrupted.
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.FilePath;
+import hudson.model.TaskListener;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.client.FakeOciServer;
+import io.jenkins.plugins.oci.client.FakeOciServer.Operation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs hundreds of artifact upload steps at once against a {@link FakeOciServer}, through the SDK client, the
+ * client pool and the shared upload executor.
+ */
+public class UploadArtifactNotifierStressTest {
+    private static final int BUILDS = 200;
+    private static final int ARTIFACTS = 3;
+    private static final String REPOSITORY_ID = "ocid1.artifactrepository.oc1.iad.fake";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(BUILDS);
+    private FakeOciServer server;
+    private FilePath workspace;
+
+    @Before
+    public void startServer() throws Exception {
+        server = FakeOciServer.start();
+        server.setLatency(Operation.PUT_ARTIFACT, 5, 50);
+        workspace = new FilePath(folder.newFolder("workspace"));
+        for (int i = 0; i < ARTIFACTS; i++) {
+            workspace.child("build/artifact" + i + ".txt").write(content(i), "UTF-8");
+        }
+    }
+
+    @After
+    public void stopServer() {
+        executor.shutdownNow();
+        CloudClientPools.shutdown();
+        server.close();
+    }
+
+    private static String content(int artifact) {
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < 1000; line++) {
+            content.append("artifact ").append(artifact).append(" line ").append(line).append('\n');
+        }
+        return content.toString();
+    }
+
+    private UploadArtifactNotifier notifier(String version) {
+        List<UploadArtifactDetails> details = new ArrayList<>();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            details.add(new UploadArtifactDetails("build/artifact" + i + ".txt", RepositoryType.GENERIC, REPOSITORY_ID,
+                    version, "stress/artifact" + i + ".txt"));
+        }
+        UploadArtifactNotifier notifier = new UploadArtifactNotifier("credentials", details) {
+            @Override
+            String getEndpointFromOCID(String repositoryOCID) {
+                return server.getEndpoint();
+            }
+        };
+        notifier.setMaxConcurrentUploads(2);
+        notifier.setCollectAllErrors(true);
+        return notifier;
+    }
+
+    private List<List<UploadArtifactResult>> runBuilds() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<UploadArtifactResult>>> futures = new ArrayList<>();
+        for (int i = 0; i < BUILDS; i++) {
+            UploadArtifactNotifier notifier = notifier("1." + i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                return notifier.uploadArtifacts(FakeOciServer.authProvider(), notifier.getUploadArtifactDetailsList(),
+                        workspace, TaskListener.NULL);
+            }));
+        }
+        start.countDown();
+        List<List<UploadArtifactResult>> results = new ArrayList<>();
+        for (Future<List<UploadArtifactResult>> future : futures) {
+            results.add(future.get(2, TimeUnit.MINUTES));
+        }
+        return results;
+    }
+
+    private void assertUploaded(List<List<UploadArtifactResult>> results) {
+        for (List<UploadArtifactResult> buildResults : results) {
+            assertEquals(ARTIFACTS, buildResults.size());
+            for (UploadArtifactResult result : buildResults) {
+                assertEquals(result.toString(), UploadArtifactResult.Status.UPLOADED, result.getStatus());
+            }
+        }
+        for (int build = 0; build < BUILDS; build++) {
+            for (int i = 0; i < ARTIFACTS; i++) {
+                assertArrayEquals(content(i).getBytes(StandardCharsets.UTF_8),
+                        server.getArtifact(REPOSITORY_ID, "stress/artifact" + i + ".txt", "1." + build));
+            }
+        }
+    }
+
+    @Test
+    public void concurrentUploadsAllArrive() throws Exception {
+        assertUploaded(runBuilds());
+        assertEquals(BUILDS * ARTIFACTS, server.getRequestCount(Operation.PUT_ARTIFACT));
+        assertTrue(server.getMaxConcurrentRequests(Operation.PUT_ARTIFACT) > 1);
+    }
+
+    @Test
+    public void serverErrorsAreRetriedWithTheWholeContent() throws Exception {
+        server.failFirstAttempts(Operation.PUT_ARTIFACT, 1, 503);
+        assertUploaded(runBuilds());
+        assertEquals(2 * BUILDS * ARTIFACTS, server.getRequestCount(Operation.PUT_ARTIFACT));
+    }
+
+    @Test
+    public void throttledUploadsAreRetried() throws Exception {
+        server.failFirstAttempts(Operation.PUT_ARTIFACT, UploadArtifactNotifier.MAX_ATTEMPTS - 1, 429);
+        assertUploaded(runBuilds());
+        assertEquals(UploadArtifactNotifier.MAX_ATTEMPTS * BUILDS * ARTIFACTS, server.getRequestCount(Operation.PUT_ARTIFACT));
+    }
+
+    @Test
+    public void uploadsFailingEveryAttemptAreReportedPerArtifact() throws Exception {
+        server.failFirstAttempts(Operation.PUT_ARTIFACT, Integer.MAX_VALUE, 500);
+        for (List<UploadArtifactResult> buildResults : runBuilds()) {
+            assertEquals(ARTIFACTS, buildResults.size());
+            for (UploadArtifactResult result : buildResults) {
+                assertEquals(UploadArtifactResult.Status.FAILED, result.getStatus());
+            }
+        }
+        // Each artifact was given all its attempts, and collecting all errors kept the other artifacts going.
+        assertEquals(UploadArtifactNotifier.MAX_ATTEMPTS * BUILDS * ARTIFACTS, server.getRequestCount(Operation.PUT_ARTIFACT));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.artifact;
+
+import hudson.FilePath;
+import hudson.slaves.WorkspaceList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class UploadCheckpointTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FilePath workspace;
+
+    @Before
+    public void createWorkspace() throws Exception {
+        workspace = new FilePath(folder.newFolder("workspace"));
+    }
+
+    private static UploadArtifactDetails detail(String artifactPath) {
+        return new UploadArtifactDetails("file", RepositoryType.GENERIC, "repo", "1", artifactPath);
+    }
+
+    @Test
+    public void uploadedArtifactsSurviveReload() throws Exception {
+        UploadCheckpoint checkpoint = UploadCheckpoint.load(workspace);
+        checkpoint.markUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa"));
+        checkpoint.markUploaded(detail("b c/=d:e"), UploadCheckpoint.sourceState(4, "bbb"));
+
+        UploadCheckpoint reloaded = UploadCheckpoint.load(workspace);
+        assertTrue(reloaded.isUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa")));
+        assertTrue(reloaded.isUploaded(detail("b c/=d:e"), UploadCheckpoint.sourceState(4, "bbb")));
+        assertFalse(reloaded.isUploaded(detail("c"), UploadCheckpoint.sourceState(3, "aaa")));
+    }
+
+    @Test
+    public void changedContentIsNotUploaded() throws Exception {
+        UploadCheckpoint checkpoint = UploadCheckpoint.load(workspace);
+        checkpoint.markUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa"));
+        assertFalse(checkpoint.isUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aab")));
+        assertFalse(checkpoint.isUploaded(detail("a"), UploadCheckpoint.sourceState(4, "aaa")));
+    }
+
+    @Test
+    public void laterEntryReplacesEarlierOne() throws Exception {
+        UploadCheckpoint checkpoint = UploadCheckpoint.load(workspace);
+        checkpoint.markUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa"));
+        checkpoint.markUploaded(detail("a"), UploadCheckpoint.sourceState(5, "ccc"));
+
+        UploadCheckpoint reloaded = UploadCheckpoint.load(workspace);
+        assertFalse(reloaded.isUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa")));
+        assertTrue(reloaded.isUploaded(detail("a"), UploadCheckpoint.sourceState(5, "ccc")));
+    }
+
+    @Test
+    public void eachArtifactAppendsOneLine() throws Exception {
+        UploadCheckpoint checkpoint = UploadCheckpoint.load(workspace);
+        for (int i = 0; i < 100; i++) {
+            checkpoint.markUploaded(detail("path" + i), UploadCheckpoint.sourceState(i, "digest" + i));
+        }
+        // Marking an artifact again with the same state writes nothing.
+        checkpoint.markUploaded(detail("path0"), UploadCheckpoint.sourceState(0, "digest0"));
+        String content = checkpointFile().readToString();
+        assertEquals(100, content.split("\n").length);
+    }
+
+    @Test
+    public void truncatedLastLineIsIgnored() throws Exception {
+        UploadCheckpoint checkpoint = UploadCheckpoint.load(workspace);
+        checkpoint.markUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa"));
+        FilePath file = checkpointFile();
+        file.write(file.readToString() + "4:bbb", StandardCharsets.UTF_8.name());
+
+        UploadCheckpoint reloaded = UploadCheckpoint.load(workspace);
+        assertTrue(reloaded.isUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa")));
+    }
+
+    @Test
+    public void clearForgetsEverything() throws Exception {
+        UploadCheckpoint checkpoint = UploadCheckpoint.load(workspace);
+        checkpoint.markUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa"));
+        checkpoint.clear();
+        assertFalse(checkpointFile().exists());
+        assertFalse(UploadCheckpoint.load(workspace).isUploaded(detail("a"), UploadCheckpoint.sourceState(3, "aaa")));
+    }
+
+    private FilePath checkpointFile() {
+        return WorkspaceList.tempDir(workspace).child("oci-upload-checkpoint.txt");
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.client;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncExecutorsTest {
+    @After
+    public void shutdown() {
+        AsyncExecutors.shutdown();
+    }
+
+    @Test
+    public void runsTasksAgainAfterShutdown() throws Exception {
+        CountDownLatch first = new CountDownLatch(1);
+        AsyncExecutors.bounded(1).execute(first::countDown);
+        assertTrue(first.await(10, TimeUnit.SECONDS));
+
+        AsyncExecutors.shutdown();
+
+        // As for a Jenkins started again in the same JVM, for example by JenkinsSessionRule.
+        CountDownLatch second = new CountDownLatch(1);
+        AsyncExecutors.bounded(1).execute(second::countDown);
+        assertTrue(second.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void executorsFromBeforeTheShutdownRejectTheirTasks() {
+        Executor executor = AsyncExecutors.bounded(1);
+        AsyncExecutors.shutdown();
+        try {
+            executor.execute(() -> { });
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException expected) {
+            // Its caller learns about it instead of waiting for a task that never runs.
+        }
+    }
+
+    @Test
+    public void shutdownTwiceIsHarmless() {
+        AsyncExecutors.shutdown();
+        AsyncExecutors.shutdown();
+    }
+
+    @Test
+    public void fullQueueRunsBoundedTasksInTheCallerButDefersDeferringOnes() throws Exception {
+        AsyncExecutors executors = AsyncExecutors.create(1);
+        ExecutorService shared = executors.executor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Occupy the only thread and the whole queue.
+            for (int i = 0; i <= AsyncExecutors.MAX_QUEUED_TASKS; i++) {
+                shared.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            Thread caller = Thread.currentThread();
+            AtomicReference<Thread> bounded = new AtomicReference<>();
+            new BoundedExecutor(shared, 1).execute(() -> bounded.set(Thread.currentThread()));
+            assertEquals(caller, bounded.get());
+
+            AtomicReference<Thread> deferred = new AtomicReference<>();
+            CountDownLatch ran = new CountDownLatch(1);
+            new BoundedExecutor(executors.deferringExecutor(), 1).execute(() -> {
+                deferred.set(Thread.currentThread());
+                ran.countDown();
+            });
+            // Returned at once without running it, like the CPS VM thread needs.
+            assertNull(deferred.get());
+
+            release.countDown();
+            assertTrue(ran.await(10, TimeUnit.SECONDS));
+            assertNotSame(caller, deferred.get());
+        } finally {
+            release.countDown();
+            shared.shutdownNow();
+        }
+    }
+
+    @Test
+    public void deferredTasksAllRunOnceTheQueueDrains() throws Exception {
+        AsyncExecutors executors = AsyncExecutors.create(1);
+        ExecutorService shared = executors.executor();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i <= AsyncExecutors.MAX_QUEUED_TASKS; i++) {
+                shared.execute(() -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            // More deferred tasks than tasks queued ahead of them.
+            int count = 2 * AsyncExecutors.MAX_QUEUED_TASKS;
+            CountDownLatch ran = new CountDownLatch(count);
+            for (int i = 0; i < count; i++) {
+                new BoundedExecutor(executors.deferringExecutor(), 1).execute(ran::countDown);
+            }
+            release.countDown();
+            assertTrue(ran.await(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            shared.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.client;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BoundedExecutorTest {
+    private final ExecutorService shared = Executors.newFixedThreadPool(8);
+
+    @After
+    public void shutdown() {
+        shared.shutdownNow();
+    }
+
+    @Test
+    public void runsAtMostItsLimitAtATime() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(shared, 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(3, maxRunning.get());
+    }
+
+    @Test
+    public void failingTaskDoesNotStopTheQueue() throws Exception {
+        BoundedExecutor executor = new BoundedExecutor(shared, 1);
+        CountDownLatch done = new CountDownLatch(2);
+        executor.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.execute(done::countDown);
+        executor.execute(done::countDown);
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void fullSharedQueueRunsTheTaskInTheSubmittingThread() throws Exception {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(1),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            // Occupy the thread and the queue of the shared pool.
+            pool.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            pool.execute(() -> { });
+            Thread caller = Thread.currentThread();
+            AtomicInteger ranInCaller = new AtomicInteger();
+            new BoundedExecutor(pool, 2).execute(() -> {
+                if (Thread.currentThread() == caller) {
+                    ranInCaller.incrementAndGet();
+                }
+            });
+            assertEquals(1, ranInCaller.get());
+            release.countDown();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejectedTaskReleasesItsSlot() throws Exception {
+        ExecutorService stopped = Executors.newSingleThreadExecutor();
+        stopped.shutdown();
+        BoundedExecutor executor = new BoundedExecutor(stopped, 1);
+        for (int i = 0; i < 2; i++) {
+            try {
+                executor.execute(() -> { });
+                fail("Expected RejectedExecutionException");
+            } catch (RejectedExecutionException expected) {
+                // The second attempt is rejected by the delegate as well, not queued behind a slot never released.
+            }
+        }
+    }
+}
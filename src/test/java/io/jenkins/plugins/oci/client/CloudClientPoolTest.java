@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.client;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CloudClientPoolTest {
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CloudClientPool<String, FakeClient> pool = new CloudClientPool<>("test clients", TimeUnit.MINUTES.toMillis(1));
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+        pool.closeAll();
+    }
+
+    private static final class FakeClient implements AutoCloseable {
+        private volatile boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @Test
+    public void leasesOfTheSameKeyShareTheClient() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        try (CloudClientPool.Lease<FakeClient> first = pool.acquire("a", () -> { created.incrementAndGet(); return new FakeClient(); });
+             CloudClientPool.Lease<FakeClient> second = pool.acquire("a", () -> { created.incrementAndGet(); return new FakeClient(); })) {
+            assertSame(first.get(), second.get());
+        }
+        assertEquals(1, created.get());
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void slowCreationDoesNotBlockOtherKeys() throws Exception {
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        Future<CloudClientPool.Lease<FakeClient>> slow = executor.submit(() -> pool.acquire("slow", () -> {
+            created.incrementAndGet();
+            creating.countDown();
+            finish.await();
+            return new FakeClient();
+        }));
+        assertTrue(creating.await(10, TimeUnit.SECONDS));
+        Future<CloudClientPool.Lease<FakeClient>> waiting = executor.submit(() -> pool.acquire("slow", () -> {
+            created.incrementAndGet();
+            return new FakeClient();
+        }));
+
+        // Another key is served while the first client is still being created.
+        Future<CloudClientPool.Lease<FakeClient>> other = executor.submit(() -> pool.acquire("other", FakeClient::new));
+        other.get(10, TimeUnit.SECONDS).close();
+        assertFalse(waiting.isDone());
+
+        finish.countDown();
+        try (CloudClientPool.Lease<FakeClient> first = slow.get(10, TimeUnit.SECONDS);
+             CloudClientPool.Lease<FakeClient> second = waiting.get(10, TimeUnit.SECONDS)) {
+            assertSame(first.get(), second.get());
+        }
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void failedCreationIsRetriedByTheNextCall() throws Exception {
+        try {
+            pool.acquire("a", () -> {
+                throw new IOException("boom");
+            });
+            fail("Expected IOException");
+        } catch (IOException expected) {
+            assertEquals("boom", expected.getMessage());
+        }
+        assertEquals(0, pool.size());
+        try (CloudClientPool.Lease<FakeClient> lease = pool.acquire("a", FakeClient::new)) {
+            assertFalse(lease.get().closed);
+        }
+    }
+
+    @Test
+    public void invalidatedClientIsClosedWhenReleased() throws Exception {
+        CloudClientPool.Lease<FakeClient> lease = pool.acquire("creds|a", FakeClient::new);
+        pool.invalidate(key -> key.startsWith("creds|"));
+        assertEquals(0, pool.size());
+        assertFalse(lease.get().closed);
+        lease.close();
+        assertTrue(lease.get().closed);
+    }
+
+    @Test
+    public void idleClientsAreEvicted() throws Exception {
+        CloudClientPool<String, FakeClient> noIdle = new CloudClientPool<>("test clients", 0);
+        CloudClientPool.Lease<FakeClient> lease = noIdle.acquire("a", FakeClient::new);
+        noIdle.evictIdle();
+        assertEquals(1, noIdle.size());
+        lease.close();
+        noIdle.evictIdle();
+        assertEquals(0, noIdle.size());
+        assertTrue(lease.get().closed);
+    }
+}
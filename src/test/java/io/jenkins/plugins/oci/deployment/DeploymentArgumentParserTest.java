@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.oracle.bmc.devops.model.DeploymentArgument;
+import com.oracle.bmc.devops.model.DeploymentArgumentCollection;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DeploymentArgumentParserTest {
+    private static List<String> namesAndValues(DeploymentArgumentCollection arguments) {
+        List<String> result = new ArrayList<>();
+        for (DeploymentArgument argument : arguments.getItems()) {
+            result.add(argument.getName() + "=" + argument.getValue());
+        }
+        return result;
+    }
+
+    private static String error(String json) {
+        try {
+            DeploymentArgumentParser.parse(json);
+        } catch (IllegalArgumentException expected) {
+            return expected.getMessage();
+        }
+        fail("Expected IllegalArgumentException for " + json);
+        return null;
+    }
+
+    private static String nested(int depth) {
+        StringBuilder sb = new StringBuilder("{\"a\":");
+        for (int i = 0; i < depth; i++) {
+            sb.append('[');
+        }
+        for (int i = 0; i < depth; i++) {
+            sb.append(']');
+        }
+        return sb.append('}').toString();
+    }
+
+    @Test
+    public void parsesScalarsByTheirText() {
+        assertEquals(Arrays.asList("version=1.2", "replicas=3", "ratio=0.50", "debug=true", "empty="),
+                namesAndValues(DeploymentArgumentParser.parse(
+                        "{\"version\": \"1.2\", \"replicas\": 3, \"ratio\": 0.50, \"debug\": true, \"empty\": \"\"}")));
+    }
+
+    @Test
+    public void parsesNestedValuesAsCompactJson() {
+        assertEquals(Arrays.asList("config={\"ports\":[80,443],\"name\":\"web\"}", "tags=[\"a\",\"b\"]"),
+                namesAndValues(DeploymentArgumentParser.parse(
+                        "{\"config\": {\"ports\": [80, 443], \"name\": \"web\"},\n \"tags\": [\"a\", \"b\"]}")));
+    }
+
+    @Test
+    public void parsesAnEmptyObject() {
+        assertTrue(DeploymentArgumentParser.parse(" {} ").getItems().isEmpty());
+    }
+
+    @Test
+    public void rejectsDuplicateNamesWithTheirLocation() {
+        assertEquals("Duplicate argument version at line 2, column 2",
+                error("{\"version\": \"1\",\n \"version\": \"2\"}"));
+    }
+
+    @Test
+    public void rejectsNullValues() {
+        assertEquals("Argument version must not be null at line 1, column 13", error("{\"version\": null}"));
+    }
+
+    @Test
+    public void rejectsAnythingButAnObject() {
+        assertEquals("Arguments must be a JSON object at line 1, column 1", error("[1, 2]"));
+        assertEquals("Arguments must be a JSON object at line 1, column 3", error("  \"a\""));
+    }
+
+    @Test
+    public void rejectsContentAfterTheArguments() {
+        assertEquals("Unexpected content after the arguments at line 1, column 10", error("{\"a\": 1} {}"));
+    }
+
+    @Test
+    public void syntaxErrorsGiveTheirLineAndColumn() {
+        String message = error("{\n  \"a\": 1,\n  \"b\": }");
+        assertTrue(message, message.startsWith("Error parsing arguments: Unexpected character ('}'"));
+        assertTrue(message, message.endsWith(" at line 3, column 9"));
+    }
+
+    @Test
+    public void limitsTheLength() {
+        StringBuilder json = new StringBuilder("{\"a\":\"");
+        while (json.length() < DeploymentArgumentParser.MAX_LENGTH - 2) {
+            json.append('x');
+        }
+        String atLimit = json + "\"}";
+        assertEquals(DeploymentArgumentParser.MAX_LENGTH, atLimit.length());
+        assertEquals(1, DeploymentArgumentParser.parse(atLimit).getItems().size());
+        assertEquals("Arguments must not be longer than " + DeploymentArgumentParser.MAX_LENGTH + " characters",
+                error(json + "x\"}"));
+    }
+
+    @Test
+    public void limitsTheNesting() {
+        assertEquals(1, DeploymentArgumentParser.parse(nested(DeploymentArgumentParser.MAX_DEPTH)).getItems().size());
+        String message = error(nested(DeploymentArgumentParser.MAX_DEPTH + 1));
+        assertTrue(message, message.startsWith("Argument a is nested deeper than " + DeploymentArgumentParser.MAX_DEPTH + " levels"));
+    }
+
+    @Test
+    public void formatsArgumentsForTheLog() {
+        assertEquals("{version=1.2, replicas=3}",
+                DeploymentArgumentParser.toString(DeploymentArgumentParser.parse("{\"version\": \"1.2\", \"replicas\": 3}")));
+        assertEquals("{}", DeploymentArgumentParser.toString(DeploymentArgumentParser.parse("{}")));
+    }
+}
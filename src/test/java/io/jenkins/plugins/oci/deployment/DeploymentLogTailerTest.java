@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import com.oracle.bmc.devops.model.Deployment;
+import com.oracle.bmc.loggingsearch.LogSearchClient;
+import com.oracle.bmc.loggingsearch.model.SearchResponse;
+import com.oracle.bmc.loggingsearch.model.SearchResult;
+import com.oracle.bmc.loggingsearch.requests.SearchLogsRequest;
+import com.oracle.bmc.loggingsearch.responses.SearchLogsResponse;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DeploymentLogTailerTest {
+    private static final Instant CREATED = Instant.parse("2021-06-30T10:00:00Z");
+
+    private final CloudClientPool<String, LogSearchClient> pool = new CloudClientPool<>("test clients", TimeUnit.MINUTES.toMillis(1));
+    private final LogSearchClient client = mock(LogSearchClient.class);
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+    private static Deployment deployment(String id) {
+        Deployment deployment = mock(Deployment.class);
+        when(deployment.getId()).thenReturn(id);
+        when(deployment.getCompartmentId()).thenReturn("ocid1.compartment.oc1..fake");
+        when(deployment.getTimeCreated()).thenReturn(Date.from(CREATED));
+        return deployment;
+    }
+
+    private DeploymentLogTailer tailer() throws Exception {
+        return new DeploymentLogTailer(pool.acquire("key", () -> client), deployment("ocid1.devopsdeployment.oc1.iad.fake"),
+                "ocid1.loggroup.oc1.iad.fake", "ocid1.log.oc1.iad.fake", new StreamTaskListener(log, StandardCharsets.UTF_8));
+    }
+
+    private static SearchResult entry(String id, int secondsAfterCreation, String message) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("message", message);
+        Map<String, Object> logContent = new HashMap<>();
+        logContent.put("id", id);
+        logContent.put("time", CREATED.plusSeconds(secondsAfterCreation).toString());
+        logContent.put("data", data);
+        return SearchResult.builder().data(Collections.singletonMap("logContent", logContent)).build();
+    }
+
+    private static SearchLogsResponse page(String nextPage, SearchResult... results) {
+        return SearchLogsResponse.builder()
+                .searchResponse(SearchResponse.builder().results(Arrays.asList(results)).build())
+                .opcNextPage(nextPage)
+                .build();
+    }
+
+    private String log() {
+        return new String(log.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static int occurrences(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void printsEveryPage() throws Exception {
+        when(client.searchLogs(any(SearchLogsRequest.class))).thenAnswer(invocation -> {
+            SearchLogsRequest request = invocation.getArgument(0);
+            return request.getPage() == null
+                    ? page("2", entry("a", 1, "first"), entry("b", 2, "second"))
+                    : page(null, entry("c", 3, "third"));
+        });
+        try (DeploymentLogTailer tailer = tailer()) {
+            tailer.tail();
+        }
+        ArgumentCaptor<SearchLogsRequest> requests = ArgumentCaptor.forClass(SearchLogsRequest.class);
+        verify(client, times(2)).searchLogs(requests.capture());
+        assertEquals("2", requests.getAllValues().get(1).getPage());
+        String log = log();
+        assertTrue(log, log.indexOf("first") < log.indexOf("second") && log.indexOf("second") < log.indexOf("third"));
+        assertEquals(log, 1, occurrences(log, "third"));
+    }
+
+    @Test
+    public void printsEachEntryOnceAcrossCalls() throws Exception {
+        when(client.searchLogs(any(SearchLogsRequest.class))).thenReturn(
+                page(null, entry("a", 1, "first"), entry("b", 2, "second")),
+                // The search starts at the newest entry printed, so it is returned again, with one at the same time.
+                page(null, entry("a", 1, "first"), entry("b", 2, "second"), entry("c", 2, "third")));
+        try (DeploymentLogTailer tailer = tailer()) {
+            tailer.tail();
+            tailer.tail();
+        }
+        ArgumentCaptor<SearchLogsRequest> requests = ArgumentCaptor.forClass(SearchLogsRequest.class);
+        verify(client, times(2)).searchLogs(requests.capture());
+        List<SearchLogsRequest> values = requests.getAllValues();
+        assertEquals(Date.from(CREATED), values.get(0).getSearchLogsDetails().getTimeStart());
+        assertEquals(Date.from(CREATED.plusSeconds(2)), values.get(1).getSearchLogsDetails().getTimeStart());
+        String log = log();
+        assertEquals(log, 1, occurrences(log, "first"));
+        assertEquals(log, 1, occurrences(log, "second"));
+        assertEquals(log, 1, occurrences(log, "third"));
+    }
+
+    @Test
+    public void failingSearchIsReportedOnceAndDoesNotFailTheStep() throws Exception {
+        when(client.searchLogs(any(SearchLogsRequest.class)))
+                .thenThrow(new IllegalStateException("search failed"))
+                .thenThrow(new IllegalStateException("search failed"))
+                .thenReturn(page(null, entry("a", 1, "first")));
+        try (DeploymentLogTailer tailer = tailer()) {
+            tailer.tail();
+            tailer.tail();
+            tailer.tail();
+        }
+        String log = log();
+        assertEquals(log, 1, occurrences(log, "Unable to fetch deployment logs: search failed"));
+        assertTrue(log, log.contains("first"));
+    }
+
+    @Test
+    public void unknownRegionDisablesTailing() {
+        AuthenticationDetailsProvider provider = mock(AuthenticationDetailsProvider.class);
+        assertNull(DeploymentLogTailer.open("credentials", provider, deployment("ocid1.devopsdeployment.oc1.zzz.fake"),
+                "ocid1.loggroup.oc1.zzz.fake", "ocid1.log.oc1.zzz.fake", new StreamTaskListener(log, StandardCharsets.UTF_8)));
+        String log = log();
+        assertEquals(log, 1, occurrences(log, "Not streaming deployment logs"));
+    }
+}
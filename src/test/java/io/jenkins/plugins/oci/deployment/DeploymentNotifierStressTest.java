@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.client.FakeOciServer;
+import io.jenkins.plugins.oci.client.FakeOciServer.Operation;
+import io.jenkins.plugins.oci.deployment.polling.DeploymentTracker;
+import io.jenkins.plugins.oci.deployment.polling.PollingConfig;
+import io.jenkins.plugins.oci.deployment.polling.PollingStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs hundreds of deployment steps at once against a {@link FakeOciServer}, through the SDK clients, the client
+ * pool and the {@link DeploymentTracker}.
+ */
+public class DeploymentNotifierStressTest {
+    private static final int BUILDS = 300;
+    private static final int PIPELINES = 10;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(BUILDS);
+    private FakeOciServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = FakeOciServer.start();
+        for (Operation operation : Operation.values()) {
+            server.setLatency(operation, 5, 50);
+        }
+    }
+
+    @After
+    public void stopServer() {
+        executor.shutdownNow();
+        DeploymentTracker.shutdown();
+        CloudClientPools.shutdown();
+        server.close();
+    }
+
+    private static final class Build {
+        private final Run<?, ?> run = mock(Run.class);
+        private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+        private final String pipelineId;
+
+        private Build(String pipelineId) {
+            this.pipelineId = pipelineId;
+        }
+
+        private Result result() {
+            ArgumentCaptor<Result> result = ArgumentCaptor.forClass(Result.class);
+            verify(run).setResult(result.capture());
+            return result.getValue();
+        }
+
+        private void assertResult(Result expected) {
+            assertEquals("Build of pipeline " + pipelineId + " logged:\n" + new String(log.toByteArray(), StandardCharsets.UTF_8),
+                    expected, result());
+        }
+    }
+
+    private DeploymentNotifier notifier(String pipelineId) throws Exception {
+        PollingConfig pollingConfig = new PollingConfig(120, 5);
+        pollingConfig.setPollingStrategy(PollingStrategy.EXPONENTIAL);
+        pollingConfig.setInitialPollingIntervalSeconds(1);
+        return new DeploymentNotifier("credentials", pipelineId, "stress", server.getEndpoint(), null,
+                pollingConfig, ExecutionMode.SYNC) {
+            @Override
+            AuthenticationDetailsProvider newAuthenticationDetailsProvider(String credentialsId) throws Exception {
+                return FakeOciServer.authProvider();
+            }
+        };
+    }
+
+    private List<Build> runBuilds(int count) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Build> builds = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Build build = new Build("ocid1.devopsdeploypipeline.oc1.iad.pipeline" + i % PIPELINES);
+            DeploymentNotifier notifier = notifier(build.pipelineId);
+            builds.add(build);
+            futures.add(executor.submit(() -> {
+                start.await();
+                notifier.perform(build.run, null, null, new StreamTaskListener(build.log, StandardCharsets.UTF_8));
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        return builds;
+    }
+
+    @Test
+    public void concurrentDeploymentsAllComplete() throws Exception {
+        List<Build> builds = runBuilds(BUILDS);
+        for (Build build : builds) {
+            build.assertResult(Result.SUCCESS);
+        }
+        assertEquals(BUILDS, server.getRequestCount(Operation.CREATE_DEPLOYMENT));
+        assertEquals(BUILDS, server.getDeploymentCount());
+        // The listDeployments summaries track the progress, getDeployment only confirms the final state. A deployment
+        // may be read again for its last poll, but never once per poll.
+        int gets = server.getRequestCount(Operation.GET_DEPLOYMENT);
+        assertTrue("getDeployment was called " + gets + " times", gets >= BUILDS && gets <= 2 * BUILDS);
+        assertTrue(server.getMaxConcurrentRequests(Operation.CREATE_DEPLOYMENT) > 1);
+    }
+
+    @Test
+    public void failedDeploymentsFailOnlyTheirBuilds() throws Exception {
+        String failingPipeline = "ocid1.devopsdeploypipeline.oc1.iad.pipeline0";
+        server.setPipelineLifecycleScript(failingPipeline, "ACCEPTED", "IN_PROGRESS", "FAILED");
+        List<Build> builds = runBuilds(BUILDS);
+        for (Build build : builds) {
+            build.assertResult(build.pipelineId.equals(failingPipeline) ? Result.FAILURE : Result.SUCCESS);
+        }
+    }
+
+    @Test
+    public void rejectedCreationFailsOnlyThoseBuilds() throws Exception {
+        // A 400 is not retried, so exactly these builds fail.
+        server.failNext(Operation.CREATE_DEPLOYMENT, 20, 400);
+        List<Build> builds = runBuilds(BUILDS);
+        int failed = 0;
+        for (Build build : builds) {
+            if (build.result() == Result.FAILURE) {
+                failed++;
+            }
+        }
+        assertEquals(20, failed);
+        assertEquals(BUILDS - 20, server.getDeploymentCount());
+    }
+
+    @Test
+    public void throttledListingBacksOffAndStillCompletes() throws Exception {
+        // Every pipeline needs a listing that is not throttled, so all the failures are used up.
+        server.failNext(Operation.LIST_DEPLOYMENTS, PIPELINES, 429);
+        List<Build> builds = runBuilds(100);
+        for (Build build : builds) {
+            build.assertResult(Result.SUCCESS);
+        }
+        assertEquals(PIPELINES, server.getFailureCount(Operation.LIST_DEPLOYMENTS));
+    }
+
+    @Test
+    public void failingListingFallsBackToGettingDeploymentsOneByOne() throws Exception {
+        server.failRandomly(Operation.LIST_DEPLOYMENTS, 1, 503);
+        List<Build> builds = runBuilds(100);
+        for (Build build : builds) {
+            build.assertResult(Result.SUCCESS);
+        }
+        // Each deployment is read once per state after its creation.
+        assertTrue(server.getRequestCount(Operation.GET_DEPLOYMENT) >= 2 * 100);
+    }
+
+    @Test
+    public void slowGetDeploymentRetriesServerErrors() throws Exception {
+        server.setLatency(Operation.GET_DEPLOYMENT, 100, 300);
+        server.failFirstAttempts(Operation.GET_DEPLOYMENT, 1, 500);
+        List<Build> builds = runBuilds(BUILDS);
+        for (Build build : builds) {
+            build.assertResult(Result.SUCCESS);
+        }
+        // Only the first getDeployment of each deployment fails, and every failed one was retried.
+        int failures = server.getFailureCount(Operation.GET_DEPLOYMENT);
+        assertTrue("getDeployment failed " + failures + " times", failures > 0 && failures <= BUILDS);
+        assertTrue(server.getRequestCount(Operation.GET_DEPLOYMENT) >= BUILDS + failures);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.client.FakeOciServer;
+import io.jenkins.plugins.oci.client.FakeOciServer.Operation;
+import io.jenkins.plugins.oci.deployment.polling.DeploymentTracker;
+import io.jenkins.plugins.oci.deployment.polling.PollingConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class DeploymentNotifierTest {
+    private FakeOciServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = FakeOciServer.start();
+    }
+
+    @After
+    public void stopServer() {
+        DeploymentTracker.shutdown();
+        CloudClientPools.shutdown();
+        server.close();
+    }
+
+    private DeploymentNotifier notifier() throws Exception {
+        return new DeploymentNotifier("credentials", "ocid1.devopsdeploypipeline.oc1.iad.fake", "test",
+                server.getEndpoint(), null, new PollingConfig(120, 5), ExecutionMode.SYNC) {
+            @Override
+            AuthenticationDetailsProvider newAuthenticationDetailsProvider(String credentialsId) throws Exception {
+                return FakeOciServer.authProvider();
+            }
+        };
+    }
+
+    @Test
+    public void abortWhileWaitingAbortsTheBuild() throws Exception {
+        // Never completes.
+        server.setLifecycleScript("ACCEPTED", "IN_PROGRESS");
+        DeploymentNotifier notifier = notifier();
+        Run<?, ?> run = mock(Run.class);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread build = new Thread(() -> {
+            try {
+                notifier.perform(run, null, null, new StreamTaskListener(log, StandardCharsets.UTF_8));
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+        });
+        build.start();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (server.getRequestCount(Operation.LIST_DEPLOYMENTS) + server.getRequestCount(Operation.GET_DEPLOYMENT) == 0) {
+            assertTrue("The deployment was never polled", System.nanoTime() < deadline);
+            Thread.sleep(100);
+        }
+
+        build.interrupt();
+        build.join(TimeUnit.MINUTES.toMillis(1));
+
+        assertFalse(build.isAlive());
+        // Jenkins records a build whose step throws InterruptedException as aborted.
+        assertTrue(String.valueOf(thrown.get()), thrown.get() instanceof InterruptedException);
+        verify(run, never()).setResult(any(Result.class));
+        assertTrue(new String(log.toByteArray(), StandardCharsets.UTF_8).contains("Deployment monitoring interrupted"));
+    }
+}
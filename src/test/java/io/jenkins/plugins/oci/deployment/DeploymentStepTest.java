@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.cloudbees.plugins.credentials.CredentialsScope;
+import com.cloudbees.plugins.credentials.SystemCredentialsProvider;
+import hudson.model.Result;
+import hudson.util.Secret;
+import io.jenkins.plugins.oci.client.FakeOciServer;
+import io.jenkins.plugins.oci.client.FakeOciServer.Operation;
+import io.jenkins.plugins.oci.credentials.CloudCredentialsImpl;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.JenkinsSessionRule;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs {@code OCIDeploy} in a Pipeline against a {@link FakeOciServer}, which outlives the controller restarts of
+ * the {@link JenkinsSessionRule}, so that a restarted build finds its deployment where it left it.
+ */
+public class DeploymentStepTest {
+    private static final String PIPELINE_ID = "ocid1.devopsdeploypipeline.oc1.iad.fake";
+    private static final String FIRST_DEPLOYMENT_ID = "ocid1.devopsdeployment.oc1.iad.fake0";
+
+    @Rule
+    public JenkinsSessionRule sessions = new JenkinsSessionRule();
+
+    private FakeOciServer server;
+
+    @Before
+    public void startServer() throws Exception {
+        server = FakeOciServer.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    private WorkflowJob createJob(JenkinsRule r) throws Exception {
+        SystemCredentialsProvider.getInstance().getCredentials().add(new CloudCredentialsImpl(CredentialsScope.GLOBAL,
+                "oci", null, "00:11:22:33:44:55:66:77:88:99:aa:bb:cc:dd:ee:ff",
+                Secret.fromString(FakeOciServer.privateKeyPem()), null, "ocid1.tenancy.oc1..fake",
+                "ocid1.user.oc1..fake", "us-ashburn-1"));
+        SystemCredentialsProvider.getInstance().save();
+        WorkflowJob job = r.createProject(WorkflowJob.class, "deploy");
+        job.setDefinition(new CpsFlowDefinition(
+                "def deployment = OCIDeploy credentialsId: 'oci', pipelineId: '" + PIPELINE_ID + "', "
+                        + "displayName: 'test', endpoint: '" + server.getEndpoint() + "', "
+                        + "pollingConfig: [timeoutSeconds: 300, pollingIntervalSeconds: 5]\n"
+                        + "echo \"Deployment ${deployment.id} is ${deployment.lifecycleState}\"", true));
+        return job;
+    }
+
+    private static WorkflowRun build(JenkinsRule r) {
+        return r.jenkins.getItemByFullName("deploy", WorkflowJob.class).getBuildByNumber(1);
+    }
+
+    // Once the tracker polls, the deployment OCID is saved with the step.
+    private void waitForPolling() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (server.getRequestCount(Operation.LIST_DEPLOYMENTS) + server.getRequestCount(Operation.GET_DEPLOYMENT) == 0) {
+            assertTrue("The deployment was never polled", System.nanoTime() < deadline);
+            Thread.sleep(100);
+        }
+    }
+
+    @Test
+    public void startsAndWaitsForTheDeployment() throws Throwable {
+        sessions.then(r -> {
+            WorkflowRun b = r.buildAndAssertSuccess(createJob(r));
+            r.assertLogContains("Deployment " + FIRST_DEPLOYMENT_ID + " is Succeeded", b);
+            assertEquals(1, server.getRequestCount(Operation.CREATE_DEPLOYMENT));
+        });
+    }
+
+    @Test
+    public void failedDeploymentFailsTheBuild() throws Throwable {
+        server.setLifecycleScript("ACCEPTED", "IN_PROGRESS", "FAILED");
+        sessions.then(r -> {
+            WorkflowRun b = r.assertBuildStatus(Result.FAILURE, createJob(r).scheduleBuild2(0));
+            r.assertLogContains("Deployment " + FIRST_DEPLOYMENT_ID + " is Failed", b);
+        });
+    }
+
+    @Test
+    public void resumesTheDeploymentAfterARestart() throws Throwable {
+        // Stays in progress until the test moves it on.
+        server.setLifecycleScript("ACCEPTED", "IN_PROGRESS");
+        sessions.then(r -> {
+            createJob(r).scheduleBuild2(0).waitForStart();
+            waitForPolling();
+        });
+        sessions.then(r -> {
+            WorkflowRun b = build(r);
+            r.waitForMessage("Resuming monitoring of deployment " + FIRST_DEPLOYMENT_ID, b);
+            server.setLifecycleState("SUCCEEDED");
+            r.assertBuildStatusSuccess(r.waitForCompletion(b));
+            r.assertLogContains("Deployment " + FIRST_DEPLOYMENT_ID + " is Succeeded", b);
+            // The restarted step picked up the deployment it had created instead of creating another one.
+            assertEquals(1, server.getRequestCount(Operation.CREATE_DEPLOYMENT));
+            assertEquals(1, server.getDeploymentCount());
+        });
+    }
+
+    @Test
+    public void stopAbortsTheBuild() throws Throwable {
+        server.setLifecycleScript("ACCEPTED", "IN_PROGRESS");
+        sessions.then(r -> {
+            WorkflowRun b = createJob(r).scheduleBuild2(0).waitForStart();
+            waitForPolling();
+            b.doStop();
+            r.assertBuildStatus(Result.ABORTED, r.waitForCompletion(b));
+        });
+    }
+
+    @Test
+    public void stopAfterARestartAbortsTheBuild() throws Throwable {
+        server.setLifecycleScript("ACCEPTED", "IN_PROGRESS");
+        sessions.then(r -> {
+            createJob(r).scheduleBuild2(0).waitForStart();
+            waitForPolling();
+        });
+        sessions.then(r -> {
+            WorkflowRun b = build(r);
+            r.waitForMessage("Resuming monitoring of deployment " + FIRST_DEPLOYMENT_ID, b);
+            b.doStop();
+            r.assertBuildStatus(Result.ABORTED, r.waitForCompletion(b));
+            assertEquals(1, server.getRequestCount(Operation.CREATE_DEPLOYMENT));
+        });
+    }
+}
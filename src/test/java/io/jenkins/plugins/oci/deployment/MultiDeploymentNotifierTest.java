@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment;
+
+import com.oracle.bmc.auth.AuthenticationDetailsProvider;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.util.StreamTaskListener;
+import io.jenkins.plugins.oci.client.CloudClient;
+import io.jenkins.plugins.oci.client.CloudClientPools;
+import io.jenkins.plugins.oci.client.FakeOciServer;
+import io.jenkins.plugins.oci.client.FakeOciServer.Operation;
+import io.jenkins.plugins.oci.deployment.polling.DeploymentTracker;
+import io.jenkins.plugins.oci.deployment.polling.PollingConfig;
+import io.jenkins.plugins.oci.deployment.polling.PollingStrategy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Fans a deployment out to several pipelines of a {@link FakeOciServer}, through the SDK client and the
+ * {@link DeploymentTracker}.
+ */
+public class MultiDeploymentNotifierTest {
+    private FakeOciServer server;
+    private final ByteArrayOutputStream log = new ByteArrayOutputStream();
+
+    @Before
+    public void startServer() throws Exception {
+        server = FakeOciServer.start();
+    }
+
+    @After
+    public void stopServer() {
+        DeploymentTracker.shutdown();
+        CloudClientPools.shutdown();
+        server.close();
+    }
+
+    private DeploymentTarget target(String pipeline) {
+        return new DeploymentTarget("ocid1.devopsdeploypipeline.oc1.iad." + pipeline, server.getEndpoint());
+    }
+
+    // Creates the deployments one at a time, in the order of the targets.
+    private MultiDeploymentNotifier notifier(List<DeploymentTarget> targets) throws Exception {
+        PollingConfig pollingConfig = new PollingConfig(120, 5);
+        pollingConfig.setPollingStrategy(PollingStrategy.EXPONENTIAL);
+        pollingConfig.setInitialPollingIntervalSeconds(1);
+        MultiDeploymentNotifier notifier = new MultiDeploymentNotifier("credentials", targets, "test", null,
+                pollingConfig, ExecutionMode.SYNC) {
+            @Override
+            AuthenticationDetailsProvider newAuthenticationDetailsProvider(String credentialsId) throws Exception {
+                return FakeOciServer.authProvider();
+            }
+
+            @Override
+            CloudClient newCloudClient() {
+                try {
+                    return FakeOciServer.cloudClient(getMaxConcurrentDeployments());
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        notifier.setMaxConcurrentDeployments(1);
+        return notifier;
+    }
+
+    private String log() {
+        return new String(log.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void reportsTheOutcomeOfEachTarget() throws Exception {
+        server.failNext(Operation.CREATE_DEPLOYMENT, 1, 400);
+        server.setPipelineLifecycleScript("ocid1.devopsdeploypipeline.oc1.iad.failing", "ACCEPTED", "IN_PROGRESS", "FAILED");
+        List<DeploymentTarget> targets = new ArrayList<>();
+        targets.add(target("rejected"));
+        targets.add(target("first"));
+        targets.add(target("failing"));
+        targets.add(target("second"));
+        Run<?, ?> run = mock(Run.class);
+
+        notifier(targets).perform(run, null, null, new StreamTaskListener(log, StandardCharsets.UTF_8));
+
+        verify(run).setResult(Result.FAILURE);
+        String log = log();
+        assertTrue(log, log.contains("FAILED " + targets.get(0) + ": "));
+        assertTrue(log, log.contains("SUCCEEDED " + targets.get(1) + ": "));
+        assertTrue(log, log.contains("FAILED " + targets.get(2) + ": "));
+        assertTrue(log, log.contains("SUCCEEDED " + targets.get(3) + ": "));
+        assertTrue(log, log.contains("2 of 4 deployments did not succeed"));
+        assertEquals(3, server.getDeploymentCount());
+    }
+
+    @Test
+    public void abortWhileTargetsAreInFlightAbortsTheBuild() throws Exception {
+        // Never completes, and each creation takes long enough for the abort to come before the last one starts.
+        server.setLifecycleScript("ACCEPTED", "IN_PROGRESS");
+        server.setLatency(Operation.CREATE_DEPLOYMENT, 1000, 1000);
+        List<DeploymentTarget> targets = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            targets.add(target("pipeline" + i));
+        }
+        MultiDeploymentNotifier notifier = notifier(targets);
+        Run<?, ?> run = mock(Run.class);
+        AtomicReference<Throwable> thrown = new AtomicReference<>();
+        Thread build = new Thread(() -> {
+            try {
+                notifier.perform(run, null, null, new StreamTaskListener(log, StandardCharsets.UTF_8));
+            } catch (Throwable e) {
+                thrown.set(e);
+            }
+        });
+        build.start();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (server.getDeploymentCount() == 0) {
+            assertTrue("No deployment was created", System.nanoTime() < deadline);
+            Thread.sleep(50);
+        }
+
+        build.interrupt();
+        build.join(TimeUnit.MINUTES.toMillis(1));
+
+        assertFalse(build.isAlive());
+        assertTrue(String.valueOf(thrown.get()), thrown.get() instanceof InterruptedException);
+        verify(run, never()).setResult(any(Result.class));
+        assertTrue(log(), log().contains("Deployments interrupted"));
+        // The creations that had not started were skipped; one may have been on its way when the build was aborted.
+        Thread.sleep(3000);
+        assertTrue(String.valueOf(server.getDeploymentCount()), server.getDeploymentCount() <= 2);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment.polling;
+
+import com.oracle.bmc.devops.DevopsClient;
+import com.oracle.bmc.devops.model.Deployment;
+import com.oracle.bmc.devops.requests.GetDeploymentRequest;
+import com.sun.net.httpserver.HttpServer;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import io.jenkins.plugins.oci.deployment.ExecutionMode;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public class DeploymentEventReceiverTest {
+    private static final String DEPLOYMENT_ID = "ocid1.devopsdeployment.oc1.iad.amaaaaaa";
+
+    private final DeploymentTracker tracker = DeploymentTracker.get();
+    private final CloudClientPool<String, DevopsClient> pool = new CloudClientPool<>("test clients", TimeUnit.MINUTES.toMillis(1));
+    private HttpServer server;
+
+    // Stands in for the receiver of a Jenkins controller, handing the messages to the same code.
+    @Before
+    public void startEndpoint() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/" + DeploymentEventReceiver.URL_NAME + "/", exchange -> {
+            int updated = DeploymentEventReceiver.deploymentsUpdated(exchange.getRequestBody());
+            byte[] body = String.valueOf(updated).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void stop() {
+        server.stop(0);
+        tracker.stop();
+        pool.closeAll();
+    }
+
+    private int post(String message) throws Exception {
+        URL url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/" + DeploymentEventReceiver.URL_NAME + "/");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(message.getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return Integer.parseInt(IOUtils.toString(in, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String event(String deploymentId) {
+        return "{\"eventType\":\"com.oraclecloud.devopsdeploy.updatedeployment\",\"data\":{\"resourceId\":\""
+                + deploymentId + "\",\"additionalDetails\":{\"lifecycleState\":\"SUCCEEDED\"}}}";
+    }
+
+    @Test
+    public void eventCompletesTheWaitingBuild() throws Exception {
+        AtomicReference<Deployment.LifecycleState> state = new AtomicReference<>(Deployment.LifecycleState.InProgress);
+        DevopsClient client = DeploymentTrackerTest.client(state);
+        try (CloudClientPool.Lease<DevopsClient> lease = pool.acquire("a", () -> client)) {
+            CompletableFuture<Deployment> completion = tracker.track("creds",
+                    DeploymentTrackerTest.deployment(DEPLOYMENT_ID, Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, DeploymentTrackerTest.eventsConfig(600, 60));
+            verify(client, timeout(5000)).getDeployment(any(GetDeploymentRequest.class));
+            Thread.sleep(DeploymentTracker.EVENT_DEBOUNCE_MILLIS);
+
+            state.set(Deployment.LifecycleState.Succeeded);
+            long start = System.nanoTime();
+            assertEquals(1, post(event(DEPLOYMENT_ID)));
+            assertEquals(Deployment.LifecycleState.Succeeded, completion.get(5, TimeUnit.SECONDS).getLifecycleState());
+            // Well within a second instead of the 6 minute fallback poll.
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    @Test
+    public void messagesWithoutTrackedDeploymentsAreIgnored() throws Exception {
+        assertEquals(0, post(event("ocid1.devopsdeployment.oc1.iad.unknown")));
+        assertEquals(0, post("not an event"));
+    }
+
+    @Test
+    public void onlyTheMessageHeadIsRead() throws Exception {
+        StringBuilder message = new StringBuilder();
+        while (message.length() < 300 * 1024) {
+            message.append("padding ");
+        }
+        message.append(DEPLOYMENT_ID);
+        assertEquals(0, DeploymentEventReceiver.deploymentsUpdated(
+                new ByteArrayInputStream(message.toString().getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    public void onlyNotificationsServiceConfirmationUrlsAreFetched() throws Exception {
+        assertTrue(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "https://notification.us-ashburn-1.oraclecloud.com/20181201/subscriptions/ocid1.onssubscription.oc1.iad.a/confirmation?token=x")));
+        assertTrue(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "https://notification.eu-frankfurt-1.oci.oraclecloud.com/20181201/subscriptions/ocid1.onssubscription.oc1.eu-frankfurt-1.a/confirmation")));
+
+        assertFalse(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "http://notification.us-ashburn-1.oraclecloud.com/20181201/subscriptions/a/confirmation")));
+        assertFalse(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "https://objectstorage.us-ashburn-1.oraclecloud.com/20181201/subscriptions/a/confirmation")));
+        assertFalse(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "https://attacker.notification.us-ashburn-1.oraclecloud.com/20181201/subscriptions/a")));
+        assertFalse(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "https://notification.us-ashburn-1.oraclecloud.com/n/bucket/o/object")));
+        assertFalse(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "https://notification.us-ashburn-1.oraclecloud.com/20181201/subscriptions/../../n/bucket")));
+        assertFalse(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "https://notification.us-ashburn-1.oraclecloud.com:8443/20181201/subscriptions/a")));
+        assertFalse(DeploymentEventReceiver.isConfirmationUrl(new URL(
+                "https://user@notification.us-ashburn-1.oraclecloud.com/20181201/subscriptions/a")));
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment.polling;
+
+import com.oracle.bmc.devops.DevopsClient;
+import com.oracle.bmc.devops.model.Deployment;
+import com.oracle.bmc.devops.model.DeploymentCollection;
+import com.oracle.bmc.devops.model.DeploymentSummary;
+import com.oracle.bmc.devops.requests.GetDeploymentRequest;
+import com.oracle.bmc.devops.requests.ListDeploymentsRequest;
+import com.oracle.bmc.devops.responses.GetDeploymentResponse;
+import com.oracle.bmc.devops.responses.ListDeploymentsResponse;
+import io.jenkins.plugins.oci.client.CloudClientPool;
+import io.jenkins.plugins.oci.deployment.ExecutionMode;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DeploymentTrackerTest {
+    private final DeploymentTracker tracker = DeploymentTracker.get();
+    private final CloudClientPool<String, DevopsClient> pool = new CloudClientPool<>("test clients", TimeUnit.MINUTES.toMillis(1));
+
+    @After
+    public void stopTracker() {
+        tracker.stop();
+        pool.closeAll();
+    }
+
+    private CloudClientPool.Lease<DevopsClient> lease(String key, DevopsClient client) throws Exception {
+        return pool.acquire(key, () -> client);
+    }
+
+    static Deployment deployment(String id, Deployment.LifecycleState state) {
+        Deployment deployment = mock(Deployment.class);
+        when(deployment.getId()).thenReturn(id);
+        when(deployment.getDeployPipelineId()).thenReturn("pipeline");
+        when(deployment.getLifecycleState()).thenReturn(state);
+        return deployment;
+    }
+
+    static DevopsClient client(Deployment.LifecycleState state) {
+        DevopsClient client = mock(DevopsClient.class);
+        when(client.listDeployments(any(ListDeploymentsRequest.class))).thenReturn(ListDeploymentsResponse.builder()
+                .deploymentCollection(DeploymentCollection.builder().items(Collections.emptyList()).build())
+                .build());
+        when(client.getDeployment(any(GetDeploymentRequest.class))).thenAnswer(invocation -> GetDeploymentResponse.builder()
+                .deployment(deployment(invocation.<GetDeploymentRequest>getArgument(0).getDeploymentId(), state))
+                .build());
+        return client;
+    }
+
+    static PollingConfig pollingConfig(long timeoutSeconds, long intervalSeconds) throws Exception {
+        return new PollingConfig(timeoutSeconds, intervalSeconds);
+    }
+
+    static PollingConfig eventsConfig(long timeoutSeconds, long intervalSeconds) throws Exception {
+        PollingConfig config = new PollingConfig(timeoutSeconds, intervalSeconds);
+        config.setPollingStrategy(PollingStrategy.EVENTS);
+        return config;
+    }
+
+    // A client returning the current value of state.
+    static DevopsClient client(AtomicReference<Deployment.LifecycleState> state) {
+        DevopsClient client = client(Deployment.LifecycleState.InProgress);
+        when(client.getDeployment(any(GetDeploymentRequest.class))).thenAnswer(invocation -> GetDeploymentResponse.builder()
+                .deployment(deployment(invocation.<GetDeploymentRequest>getArgument(0).getDeploymentId(), state.get()))
+                .build());
+        return client;
+    }
+
+    @Test
+    public void completesTrackedDeployment() throws Exception {
+        try (CloudClientPool.Lease<DevopsClient> lease = lease("a", client(Deployment.LifecycleState.Succeeded))) {
+            CompletableFuture<Deployment> completion = tracker.track("creds",
+                    deployment("ocid1.devopsdeployment.oc1.iad.a", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, pollingConfig(60, 1));
+            assertEquals(Deployment.LifecycleState.Succeeded, completion.get(10, TimeUnit.SECONDS).getLifecycleState());
+        }
+    }
+
+    @Test
+    public void tracksAgainAfterShutdown() throws Exception {
+        try (CloudClientPool.Lease<DevopsClient> lease = lease("a", client(Deployment.LifecycleState.InProgress))) {
+            CompletableFuture<Deployment> pending = tracker.track("creds",
+                    deployment("ocid1.devopsdeployment.oc1.iad.a", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, pollingConfig(60, 1));
+            DeploymentTracker.shutdown();
+            // Builds still waiting are released rather than left hanging.
+            assertTrue(pending.isCancelled());
+        }
+
+        try (CloudClientPool.Lease<DevopsClient> lease = lease("b", client(Deployment.LifecycleState.Succeeded))) {
+            CompletableFuture<Deployment> completion = tracker.track("creds",
+                    deployment("ocid1.devopsdeployment.oc1.iad.b", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, pollingConfig(60, 1));
+            assertEquals(Deployment.LifecycleState.Succeeded, completion.get(10, TimeUnit.SECONDS).getLifecycleState());
+        }
+    }
+
+    @Test
+    public void onlyDueDeploymentsArePolled() throws Exception {
+        DevopsClient fast = client(Deployment.LifecycleState.InProgress);
+        DevopsClient slow = client(Deployment.LifecycleState.InProgress);
+        try (CloudClientPool.Lease<DevopsClient> fastLease = lease("fast", fast);
+             CloudClientPool.Lease<DevopsClient> slowLease = lease("slow", slow)) {
+            tracker.track("creds", deployment("ocid1.devopsdeployment.oc1.iad.fast", Deployment.LifecycleState.InProgress),
+                    fastLease, ExecutionMode.SYNC, pollingConfig(60, 1));
+            tracker.track("creds", deployment("ocid1.devopsdeployment.oc1.iad.slow", Deployment.LifecycleState.InProgress),
+                    slowLease, ExecutionMode.SYNC, pollingConfig(60, 30));
+            Thread.sleep(3500);
+        }
+        // Both are polled when tracked, then the slow one waits for its own interval.
+        verify(fast, atLeast(3)).getDeployment(any(GetDeploymentRequest.class));
+        verify(slow, times(1)).getDeployment(any(GetDeploymentRequest.class));
+    }
+
+    @Test
+    public void summaryOfACompletedDeploymentIsUsedBeforeItIsDue() throws Exception {
+        DevopsClient client = client(Deployment.LifecycleState.Succeeded);
+        DeploymentSummary succeeded = mock(DeploymentSummary.class);
+        when(succeeded.getId()).thenReturn("ocid1.devopsdeployment.oc1.iad.slow");
+        when(succeeded.getLifecycleState()).thenReturn(Deployment.LifecycleState.Succeeded);
+        DeploymentSummary inProgress = mock(DeploymentSummary.class);
+        when(inProgress.getId()).thenReturn("ocid1.devopsdeployment.oc1.iad.slow");
+        when(inProgress.getLifecycleState()).thenReturn(Deployment.LifecycleState.InProgress);
+        when(client.listDeployments(any(ListDeploymentsRequest.class))).thenReturn(
+                listResponse(inProgress), listResponse(inProgress), listResponse(succeeded));
+        when(client.getDeployment(any(GetDeploymentRequest.class))).thenAnswer(invocation -> GetDeploymentResponse.builder()
+                .deployment(deployment(invocation.<GetDeploymentRequest>getArgument(0).getDeploymentId(),
+                        invocation.<GetDeploymentRequest>getArgument(0).getDeploymentId().endsWith("slow")
+                                ? Deployment.LifecycleState.Succeeded : Deployment.LifecycleState.InProgress))
+                .build());
+        try (CloudClientPool.Lease<DevopsClient> lease = lease("a", client)) {
+            tracker.track("creds", deployment("ocid1.devopsdeployment.oc1.iad.fast", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, pollingConfig(60, 1));
+            CompletableFuture<Deployment> slow = tracker.track("creds",
+                    deployment("ocid1.devopsdeployment.oc1.iad.slow", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, pollingConfig(60, 30));
+            // Completed by the listDeployments call of the fast deployment, long before its own next poll.
+            assertEquals(Deployment.LifecycleState.Succeeded, slow.get(10, TimeUnit.SECONDS).getLifecycleState());
+        }
+    }
+
+    @Test
+    public void trackerKeepsItsOwnLeaseOfTheClient() throws Exception {
+        DevopsClient client = client(Deployment.LifecycleState.InProgress);
+        CompletableFuture<Deployment> completion;
+        try (CloudClientPool.Lease<DevopsClient> lease = lease("creds|a", client)) {
+            completion = tracker.track("creds", deployment("ocid1.devopsdeployment.oc1.iad.a", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, pollingConfig(60, 1));
+        }
+        // The credentials changed and the build closed its lease, the tracker is still polling with the client.
+        pool.invalidate(key -> key.startsWith("creds|"));
+        verify(client, never()).close();
+
+        completion.cancel(true);
+        tracker.stop();
+        verify(client, timeout(5000)).close();
+    }
+
+    @Test
+    public void eventCompletesDeploymentBeforeTheFallbackPoll() throws Exception {
+        AtomicReference<Deployment.LifecycleState> state = new AtomicReference<>(Deployment.LifecycleState.InProgress);
+        DevopsClient client = client(state);
+        try (CloudClientPool.Lease<DevopsClient> lease = lease("a", client)) {
+            CompletableFuture<Deployment> completion = tracker.track("creds",
+                    deployment("ocid1.devopsdeployment.oc1.iad.a", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, eventsConfig(600, 30));
+            verify(client, timeout(5000)).getDeployment(any(GetDeploymentRequest.class));
+
+            state.set(Deployment.LifecycleState.Succeeded);
+            assertTrue(tracker.deploymentUpdated("ocid1.devopsdeployment.oc1.iad.a"));
+            // The next fallback poll is 3 minutes away.
+            assertEquals(Deployment.LifecycleState.Succeeded, completion.get(5, TimeUnit.SECONDS).getLifecycleState());
+        }
+    }
+
+    @Test
+    public void eventsAreIgnoredForOtherStrategies() throws Exception {
+        try (CloudClientPool.Lease<DevopsClient> lease = lease("a", client(Deployment.LifecycleState.InProgress))) {
+            tracker.track("creds", deployment("ocid1.devopsdeployment.oc1.iad.a", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, pollingConfig(60, 30));
+            assertFalse(tracker.deploymentUpdated("ocid1.devopsdeployment.oc1.iad.a"));
+            assertFalse(tracker.deploymentUpdated("ocid1.devopsdeployment.oc1.iad.unknown"));
+        }
+    }
+
+    @Test
+    public void eventsForTheSameDeploymentAreDebounced() throws Exception {
+        DevopsClient client = client(Deployment.LifecycleState.InProgress);
+        try (CloudClientPool.Lease<DevopsClient> lease = lease("a", client)) {
+            tracker.track("creds", deployment("ocid1.devopsdeployment.oc1.iad.a", Deployment.LifecycleState.InProgress),
+                    lease, ExecutionMode.SYNC, eventsConfig(600, 30));
+            verify(client, timeout(5000)).getDeployment(any(GetDeploymentRequest.class));
+            for (int i = 0; i < 20; i++) {
+                assertTrue(tracker.deploymentUpdated("ocid1.devopsdeployment.oc1.iad.a"));
+            }
+            Thread.sleep(DeploymentTracker.EVENT_DEBOUNCE_MILLIS + 1500);
+        }
+        // The first poll when tracked, then one for the burst of events.
+        verify(client, times(2)).getDeployment(any(GetDeploymentRequest.class));
+    }
+
+    private static ListDeploymentsResponse listResponse(DeploymentSummary... summaries) {
+        return ListDeploymentsResponse.builder()
+                .deploymentCollection(DeploymentCollection.builder().items(Arrays.asList(summaries)).build())
+                .build();
+    }
+}
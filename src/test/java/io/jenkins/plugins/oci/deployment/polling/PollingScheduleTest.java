@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.deployment.polling;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PollingScheduleTest {
+    private static void assertAround(long expectedMillis, long actualMillis) {
+        long jitter = (long) (expectedMillis * PollingSchedule.JITTER_FACTOR);
+        assertTrue(actualMillis + " is not within " + jitter + " ms of " + expectedMillis,
+                actualMillis >= expectedMillis - jitter && actualMillis <= expectedMillis + jitter);
+    }
+
+    @Test
+    public void fixedScheduleAlwaysWaitsThePollingInterval() {
+        PollingSchedule schedule = new PollingSchedule(PollingStrategy.FIXED, 2000, 10000, 2.0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(10000, schedule.nextDelayMillis(false));
+        }
+        assertEquals(10000, schedule.nextDelayMillis(true));
+    }
+
+    @Test
+    public void eventsScheduleOnlyPollsAsAFallback() {
+        PollingSchedule schedule = new PollingSchedule(PollingStrategy.EVENTS, 2000, 10000, 2.0);
+        assertEquals(10000 * PollingSchedule.EVENTS_FALLBACK_FACTOR, schedule.nextDelayMillis(false));
+        assertEquals(10000 * PollingSchedule.EVENTS_FALLBACK_FACTOR, schedule.nextDelayMillis(true));
+    }
+
+    @Test
+    public void exponentialScheduleGrowsUpToThePollingInterval() {
+        for (int run = 0; run < 100; run++) {
+            PollingSchedule schedule = new PollingSchedule(PollingStrategy.EXPONENTIAL, 2000, 10000, 2.0);
+            assertAround(2000, schedule.nextDelayMillis(false));
+            assertAround(4000, schedule.nextDelayMillis(false));
+            assertAround(8000, schedule.nextDelayMillis(false));
+            assertAround(10000, schedule.nextDelayMillis(false));
+            assertAround(10000, schedule.nextDelayMillis(false));
+        }
+    }
+
+    @Test
+    public void throttlingJumpsToThePollingInterval() {
+        PollingSchedule schedule = new PollingSchedule(PollingStrategy.EXPONENTIAL, 2000, 30000, 1.5);
+        assertAround(2000, schedule.nextDelayMillis(false));
+        assertAround(30000, schedule.nextDelayMillis(true));
+        assertAround(30000, schedule.nextDelayMillis(false));
+    }
+
+    @Test
+    public void initialIntervalIsCappedByThePollingInterval() {
+        PollingSchedule schedule = new PollingSchedule(PollingStrategy.EXPONENTIAL, 20000, 5000, 2.0);
+        assertAround(5000, schedule.nextDelayMillis(false));
+    }
+
+    @Test
+    public void delaysAreAtLeastOneSecond() {
+        PollingSchedule schedule = new PollingSchedule(PollingStrategy.EXPONENTIAL, 100, 100, 2.0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(1000, schedule.nextDelayMillis(false));
+        }
+    }
+
+    @Test
+    public void jitterSpreadsTheDelays() {
+        PollingSchedule schedule = new PollingSchedule(PollingStrategy.EXPONENTIAL, 10000, 10000, 2.0);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long delay = schedule.nextDelayMillis(false);
+            min = Math.min(min, delay);
+            max = Math.max(max, delay);
+        }
+        // Builds started together do not keep polling in lockstep.
+        assertTrue(max - min > 1000);
+    }
+
+    @Test
+    public void configDefaultsToTheFixedStrategy() throws Exception {
+        PollingConfig config = new PollingConfig(120, 15);
+        assertEquals(PollingStrategy.FIXED, config.getPollingStrategy());
+        assertEquals(15000, config.newSchedule().nextDelayMillis(false));
+        assertEquals(60, config.withTimeoutSeconds(60).getTimeoutSeconds());
+        assertEquals(15, config.withTimeoutSeconds(60).getPollingIntervalSeconds());
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.utils;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+
+public class ArgumentTemplateTest {
+    private static Map<String, String> variables(String... namesAndValues) {
+        Map<String, String> variables = new HashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            variables.put(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return variables;
+    }
+
+    private static String render(String template, Map<String, String> variables) {
+        return ArgumentTemplate.compile(template).render(variables);
+    }
+
+    @Test
+    public void substitutesVariables() {
+        assertEquals("{\"version\":\"1.42\",\"env\":\"prod\"}",
+                render("{\"version\":\"1.${BUILD_NUMBER}\",\"env\":\"${ENV}\"}", variables("BUILD_NUMBER", "42", "ENV", "prod")));
+        assertEquals("4242", render("${BUILD_NUMBER}${BUILD_NUMBER}", variables("BUILD_NUMBER", "42")));
+    }
+
+    @Test
+    public void unknownVariablesAreKept() {
+        assertEquals("v${MISSING}", render("v${MISSING}", Collections.emptyMap()));
+        assertEquals("${}", render("${}", Collections.emptyMap()));
+    }
+
+    @Test
+    public void valuesAreInsertedVerbatim() {
+        Map<String, String> variables = variables("A", "cost $5 in C:\\tmp\\$1", "B", "${A}");
+        assertEquals("cost $5 in C:\\tmp\\$1", render("${A}", variables));
+        // A value is never substituted again.
+        assertEquals("${A}", render("${B}", variables));
+    }
+
+    @Test
+    public void whitespaceAfterAVariableIsKept() {
+        Map<String, String> variables = variables("A", "1", "B", "2");
+        assertEquals("1 2", render("${A} ${B}", variables));
+        assertEquals("1\n", render("${A}\n", variables));
+        assertEquals("2 \t", render("${B} \t", variables));
+    }
+
+    @Test
+    public void escapedDollarIsLiteral() {
+        Map<String, String> variables = variables("A", "1");
+        assertEquals("${A}", render("\\\\${A}", variables));
+        assertEquals("price: $", render("price: \\\\$", variables));
+        // A single backslash keeps both characters and the variable.
+        assertEquals("\\${A}", render("\\${A}", variables));
+        // The first backslash is literal, the other two escape the '$'.
+        assertEquals("\\${A}", render("\\\\\\${A}", variables));
+    }
+
+    @Test
+    public void invalidVariablesAreLiteral() {
+        Map<String, String> variables = variables("A", "1");
+        assertEquals("${A-B}", render("${A-B}", variables));
+        assertEquals("${A", render("${A", variables));
+        assertEquals("$", render("$", variables));
+        assertEquals("${", render("${", variables));
+        assertEquals("$$1", render("$$${A}", variables));
+        assertEquals("", render("", variables));
+    }
+
+    @Test
+    public void keepsTheTemplate() {
+        assertEquals("a${B}", ArgumentTemplate.compile("a${B}").getTemplate());
+    }
+
+    // The documented rules written as one regex, left to right.
+    private static final Pattern REFERENCE = Pattern.compile("\\\\\\\\\\$|\\\\\\$|\\$\\{([A-Za-z0-9_]*)\\}");
+
+    private static String reference(String template, Map<String, String> variables) {
+        Matcher matcher = REFERENCE.matcher(template);
+        StringBuilder sb = new StringBuilder();
+        int last = 0;
+        while (matcher.find()) {
+            sb.append(template, last, matcher.start());
+            String match = matcher.group();
+            if (match.equals("\\\\$")) {
+                sb.append('$');
+            } else if (matcher.group(1) != null && variables.containsKey(matcher.group(1))) {
+                sb.append(variables.get(matcher.group(1)));
+            } else {
+                sb.append(match);
+            }
+            last = matcher.end();
+        }
+        return sb.append(template, last, template.length()).toString();
+    }
+
+    @Test
+    public void matchesTheReferenceOnRandomTemplates() {
+        char[] alphabet = {'$', '{', '}', '\\', 'A', 'B', '_', '1', ' ', '-', 'x', '\n'};
+        Map<String, String> variables = variables("A", "a$\\", "B", "${A}", "A1", "", "_", "u");
+        Random random = new Random(20210805);
+        for (int run = 0; run < 20000; run++) {
+            StringBuilder template = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int i = 0; i < length; i++) {
+                template.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String text = template.toString();
+            assertEquals("Template " + text, reference(text, variables), render(text, variables));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.utils;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * CommonUtil.parseRegionFromOCID as it was before {@link Ocid}, the reference its behaviour is compared with.
+ */
+final class LegacyOcidParser {
+    private static final int ENTITY_TYPE_MAX_LENGTH = 32;
+    private static final int REALM_MAX_LENGTH = 15;
+    private static final int REGION_MAX_LENGTH = 24;
+    private static final int MAX_PARTS = 5;
+    private static final int MAX_OCID_LENGTH = 255;
+    private static final String OCID_COMMON_PARTS_PATTERN = "^[a-z][a-z0-9-_]*[a-z0-9]+$";
+    private static final String OCID_OTHER_PARTS_PATTERN = "^[a-zA-Z0-9-_]*$";
+
+    private LegacyOcidParser() {
+    }
+
+    static String parseRegionFromOCID(String possibleOcid) throws IllegalArgumentException {
+        if (possibleOcid == null) {
+            throw new NullPointerException("possibleOcid");
+        }
+        if (possibleOcid.length() > MAX_OCID_LENGTH) {
+            throw new IllegalArgumentException("OCID is too long");
+        }
+        String[] parts = possibleOcid.split("[.:]");
+        if (parts.length < MAX_PARTS) {
+            throw new IllegalArgumentException("OCID has too few parts");
+        }
+        if (StringUtils.isBlank(parts[0])) {
+            throw new IllegalArgumentException("OCID has missing version");
+        }
+        if (!"ocidv1".equals(parts[0].toLowerCase(Locale.ENGLISH)) && !"ocid1".equals(parts[0].toLowerCase(Locale.ENGLISH))) {
+            throw new IllegalArgumentException("OCID has invalid version");
+        }
+        if (StringUtils.isBlank(parts[1])) {
+            throw new IllegalArgumentException("OCID has missing entity type");
+        }
+        if (!Pattern.matches(OCID_COMMON_PARTS_PATTERN, parts[1].toLowerCase(Locale.ENGLISH)) || parts[1].length() > ENTITY_TYPE_MAX_LENGTH) {
+            throw new IllegalArgumentException("OCID has invalid entity type");
+        }
+        if (StringUtils.isBlank(parts[2])) {
+            throw new IllegalArgumentException("OCID has missing realm");
+        }
+        if (!Pattern.matches(OCID_COMMON_PARTS_PATTERN, parts[2].toLowerCase(Locale.ENGLISH)) || parts[2].length() > REALM_MAX_LENGTH) {
+            throw new IllegalArgumentException("OCID has invalid realm");
+        }
+        if (StringUtils.isNotBlank(parts[3]) && (!Pattern.matches(OCID_COMMON_PARTS_PATTERN, parts[3].toLowerCase(Locale.ENGLISH))
+                || parts[3].length() > REGION_MAX_LENGTH)) {
+            throw new IllegalArgumentException("OCID has invalid region");
+        }
+        for (int i = 4; i < parts.length; ++i) {
+            if (!Pattern.matches(OCID_OTHER_PARTS_PATTERN, parts[i])) {
+                throw new IllegalArgumentException("OCID has invalid part " + i);
+            }
+        }
+        return parts[3];
+    }
+}
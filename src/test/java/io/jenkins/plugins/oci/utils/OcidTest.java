@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021, Oracle and/or its affiliates.  All rights reserved.
+ * This software is licensed to you under the Universal Permissive License (UPL) 1.0 as shown at https://oss.oracle.com/licenses/upl.
+ */
+
+package io.jenkins.plugins.oci.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OcidTest {
+    private static String error(String possibleOcid) {
+        try {
+            Ocid.parse(possibleOcid);
+        } catch (IllegalArgumentException expected) {
+            return expected.getMessage();
+        }
+        fail("Expected IllegalArgumentException for " + possibleOcid);
+        return null;
+    }
+
+    @Test
+    public void parsesTheParts() {
+        Ocid ocid = Ocid.parse("ocid1.genericrepository.oc1.iad.0.amaaaaaaexample");
+        assertEquals("genericrepository", ocid.getEntityType());
+        assertEquals("oc1", ocid.getRealm());
+        assertEquals("iad", ocid.getRegion());
+        assertTrue(ocid.isInRegion("iad"));
+        assertFalse(ocid.isInRegion("phx"));
+        assertEquals("ocid1.genericrepository.oc1.iad.0.amaaaaaaexample", ocid.toString());
+    }
+
+    @Test
+    public void acceptsAnEmptyRegionAndColons() {
+        assertEquals("", Ocid.parse("ocid1.tenancy.oc1..aaaaaaaexample").getRegion());
+        assertEquals("us-ashburn-1", Ocid.parse("OCIDv1:Instance:OC1:us-ashburn-1:abc").getRegion());
+        assertEquals("iad", Ocid.parse("ocid1.instance.oc1.iad.abc...").getRegion());
+    }
+
+    @Test
+    public void countsThePartsFirst() {
+        assertEquals("OCID has too few parts", error("foo.bar"));
+        assertEquals("OCID has too few parts", error(""));
+        assertEquals("OCID has too few parts", error("ocid1.instance.oc1.iad"));
+        assertEquals("OCID has too few parts", error("ocid1.instance.oc1.iad...."));
+    }
+
+    @Test
+    public void reportsTheFirstInvalidPart() {
+        assertEquals("OCID has missing version", error(" .instance.oc1.iad.abc"));
+        assertEquals("OCID has invalid version", error("ocid2.instance.oc1.iad.abc"));
+        assertEquals("OCID has invalid version", error("oc\u0131d1.instance.oc1.iad.abc"));
+        assertEquals("OCID has missing entity type", error("ocid1..oc1.iad.abc"));
+        assertEquals("OCID has invalid entity type", error("ocid1.1nstance.oc1.iad.abc"));
+        assertEquals("OCID has missing realm", error("ocid1.instance..iad.abc"));
+        assertEquals("OCID has invalid realm", error("ocid1.instance.oc_.iad.abc"));
+        assertEquals("OCID has invalid region", error("ocid1.instance.oc1.i.abc"));
+        assertEquals("OCID has invalid part 5", error("ocid1.instance.oc1.iad.abc.d/e"));
+        assertEquals("OCID is too long", error("ocid1.instance.oc1.iad." + new String(new char[256]).replace('\0', 'a')));
+    }
+
+    @Test
+    public void matchesTheLegacyParserOnRandomInput() {
+        char[] alphabet = {'o', 'c', 'i', 'd', '1', 'v', 'A', 'z', '-', '_', '.', '.', ':', ' ', '/'};
+        String[] prefixes = {"", "ocid1.", "ocid1.instance.", "ocid1.instance.oc1.", "ocid1.instance.oc1.iad."};
+        Random random = new Random(20210805);
+        for (int run = 0; run < 50000; run++) {
+            StringBuilder sb = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+            int length = random.nextInt(20);
+            for (int i = 0; i < length; i++) {
+                sb.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            String possibleOcid = sb.toString();
+            String expected;
+            try {
+                expected = "region " + LegacyOcidParser.parseRegionFromOCID(possibleOcid);
+            } catch (IllegalArgumentException e) {
+                expected = e.getMessage();
+            }
+            String actual;
+            try {
+                actual = "region " + Ocid.parse(possibleOcid).getRegion();
+            } catch (IllegalArgumentException e) {
+                actual = e.getMessage();
+            }
+            assertEquals("OCID '" + possibleOcid + "'", expected, actual);
+        }
+    }
+}